@@ -2,8 +2,10 @@ package sports.center.com;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class SportCentre {
     public static void main(String[] args) {
         SpringApplication.run(SportCentre.class, args);
@@ -0,0 +1,19 @@
+package sports.center.com.cache;
+
+import java.util.List;
+
+/**
+ * Names of the Hibernate second-level cache regions. Their size and TTL are configured in application.conf.
+ */
+public final class CacheRegions {
+    public static final String USERS = "users";
+    public static final String USER_NATURAL_IDS = "users-natural-id";
+    public static final String TRAINING_TYPES = "training-types";
+    public static final String QUERY_RESULTS = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+    public static final List<String> ALL = List.of(USERS, USER_NATURAL_IDS, TRAINING_TYPES, QUERY_RESULTS, UPDATE_TIMESTAMPS);
+
+    private CacheRegions() {
+    }
+}
@@ -0,0 +1,156 @@
+package sports.center.com.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import sports.center.com.security.AuthenticatedUser;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded, TTL-based cache of credentials that were already verified against the database, together with
+ * the principal they resolved to. Entries are keyed by a salted SHA-256 of the username and hold a salted
+ * SHA-256 of the username/password pair, so no plaintext credential is ever kept in memory.
+ */
+@Slf4j
+@Component
+public class CredentialCache {
+    private final Map<String, CachedCredential> entries = new ConcurrentHashMap<>();
+    private final byte[] salt = new byte[16];
+    private final int maxSize;
+    private final long ttlNanos;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter evictionCounter;
+
+    public CredentialCache(MeterRegistry meterRegistry,
+                           @Value("${auth.credential-cache.max-size:10000}") int maxSize,
+                           @Value("${auth.credential-cache.ttl:PT5M}") Duration ttl) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        new SecureRandom().nextBytes(salt);
+
+        this.hitCounter = meterRegistry.counter("auth_credential_cache_requests_total", "result", "hit");
+        this.missCounter = meterRegistry.counter("auth_credential_cache_requests_total", "result", "miss");
+        this.evictionCounter = meterRegistry.counter("auth_credential_cache_evictions_total");
+        meterRegistry.gauge("auth_credential_cache_size", entries, Map::size);
+    }
+
+    public Optional<AuthenticatedUser> get(String username, String password) {
+        String key = userKey(username);
+        CachedCredential entry = entries.get(key);
+
+        if (entry == null) {
+            missCounter.increment();
+            return Optional.empty();
+        }
+        if (entry.isExpired(System.nanoTime())) {
+            if (entries.remove(key, entry)) {
+                evictionCounter.increment();
+            }
+            missCounter.increment();
+            return Optional.empty();
+        }
+        if (!MessageDigest.isEqual(entry.credentialHash(), credentialHash(username, password))) {
+            missCounter.increment();
+            return Optional.empty();
+        }
+
+        hitCounter.increment();
+        return Optional.of(entry.principal());
+    }
+
+    public void put(String username, String password, AuthenticatedUser principal) {
+        if (entries.size() >= maxSize) {
+            evict();
+        }
+        entries.put(userKey(username),
+                new CachedCredential(credentialHash(username, password), principal, System.nanoTime() + ttlNanos));
+    }
+
+    /**
+     * Drops the cached credential of the given user. When called inside a transaction the entry is
+     * dropped again after commit, so a concurrent login cannot re-cache the credential that is being replaced.
+     */
+    public void invalidate(String username) {
+        String key = userKey(username);
+        entries.remove(key);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    entries.remove(key);
+                }
+            });
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void evict() {
+        long now = System.nanoTime();
+        int evicted = 0;
+
+        Iterator<CachedCredential> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().isExpired(now)) {
+                iterator.remove();
+                evicted++;
+            }
+        }
+
+        if (entries.size() >= maxSize) {
+            int overflow = entries.size() - maxSize + Math.max(1, maxSize / 16);
+            iterator = entries.values().iterator();
+            while (overflow-- > 0 && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+                evicted++;
+            }
+        }
+
+        evictionCounter.increment(evicted);
+        log.debug("Credential cache evicted {} entries", evicted);
+    }
+
+    private String userKey(String username) {
+        return Base64.getEncoder().encodeToString(digest(username.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private byte[] credentialHash(String username, String password) {
+        return digest((username + '\0' + password).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private byte[] digest(byte[] value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(salt);
+            return digest.digest(value);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record CachedCredential(byte[] credentialHash, AuthenticatedUser principal, long expiresAtNanos) {
+        boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+}
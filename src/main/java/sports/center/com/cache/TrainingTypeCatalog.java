@@ -0,0 +1,115 @@
+package sports.center.com.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import sports.center.com.dto.training.TrainingTypeResponseDto;
+import sports.center.com.model.TrainingType;
+import sports.center.com.repository.TrainingTypeRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Preloaded, read-only view of the training_types table. Every refresh builds new immutable maps and swaps them in
+ * at once, so readers never see a half-built catalog. Lookups hand out entity references by id, so attaching a
+ * training type to a trainer or training needs no SELECT. The ETag of a snapshot is derived from the ids and
+ * versions of its rows, so it only changes when a training type does.
+ */
+@Slf4j
+@Component
+public class TrainingTypeCatalog {
+    private final TrainingTypeRepository trainingTypeRepository;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.EMPTY);
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public TrainingTypeCatalog(TrainingTypeRepository trainingTypeRepository, MeterRegistry meterRegistry) {
+        this.trainingTypeRepository = trainingTypeRepository;
+        this.hitCounter = meterRegistry.counter("training_type_catalog_requests_total", "result", "hit");
+        this.missCounter = meterRegistry.counter("training_type_catalog_requests_total", "result", "miss");
+        meterRegistry.gauge("training_type_catalog_size", snapshot, reference -> reference.get().typesById().size());
+    }
+
+    @PostConstruct
+    @Scheduled(initialDelayString = "${training-type.catalog.refresh-interval:PT10M}",
+            fixedDelayString = "${training-type.catalog.refresh-interval:PT10M}")
+    public void refresh() {
+        try {
+            Map<String, Long> idsByName = new HashMap<>();
+            Map<Long, TrainingTypeResponseDto> typesById = new LinkedHashMap<>();
+            SortedMap<Long, Long> versionsById = new TreeMap<>();
+            for (TrainingType trainingType : trainingTypeRepository.findAll()) {
+                versionsById.put(trainingType.getId(), trainingType.getVersion());
+                idsByName.put(trainingType.getTrainingTypeName(), trainingType.getId());
+                typesById.put(trainingType.getId(), TrainingTypeResponseDto.builder()
+                        .id(trainingType.getId())
+                        .trainingTypeName(trainingType.getTrainingTypeName())
+                        .build());
+            }
+            snapshot.set(new Snapshot(Map.copyOf(idsByName), Collections.unmodifiableMap(typesById),
+                    eTag(versionsById.toString()), Instant.now()));
+            log.info("Training type catalog loaded {} types", typesById.size());
+        } catch (DataAccessException e) {
+            log.warn("Training type catalog refresh failed, keeping {} cached types: {}",
+                    snapshot.get().typesById().size(), e.getMessage());
+        }
+    }
+
+    public Optional<TrainingType> findReferenceByName(String trainingTypeName) {
+        Long id = trainingTypeName == null ? null : snapshot.get().idsByName().get(trainingTypeName);
+        return reference(id);
+    }
+
+    public Optional<TrainingType> findReferenceById(Long id) {
+        return reference(id != null && snapshot.get().typesById().containsKey(id) ? id : null);
+    }
+
+    public List<TrainingTypeResponseDto> findAll() {
+        return List.copyOf(snapshot.get().typesById().values());
+    }
+
+    public int size() {
+        return snapshot.get().typesById().size();
+    }
+
+    public String getETag() {
+        return snapshot.get().eTag();
+    }
+
+    public Instant getLoadedAt() {
+        return snapshot.get().loadedAt();
+    }
+
+    private Optional<TrainingType> reference(Long id) {
+        if (id == null) {
+            missCounter.increment();
+            return Optional.empty();
+        }
+        hitCounter.increment();
+        return Optional.of(trainingTypeRepository.getReferenceById(id));
+    }
+
+    private String eTag(String versions) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(versions.getBytes(StandardCharsets.UTF_8));
+            return "types-" + HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record Snapshot(Map<String, Long> idsByName, Map<Long, TrainingTypeResponseDto> typesById, String eTag,
+                            Instant loadedAt) {
+        static final Snapshot EMPTY = new Snapshot(Map.of(), Map.of(), "types-empty", null);
+    }
+}
@@ -0,0 +1,31 @@
+package sports.center.com.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+@Endpoint(id = "trainingtypes")
+public class TrainingTypeCatalogEndpoint {
+    private final TrainingTypeCatalog trainingTypeCatalog;
+
+    @ReadOperation
+    public Map<String, Object> catalog() {
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("size", trainingTypeCatalog.size());
+        details.put("loadedAt", trainingTypeCatalog.getLoadedAt());
+        return details;
+    }
+
+    @WriteOperation
+    public Map<String, Object> refresh() {
+        trainingTypeCatalog.refresh();
+        return catalog();
+    }
+}
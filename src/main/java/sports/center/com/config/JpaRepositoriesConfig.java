@@ -0,0 +1,10 @@
+package sports.center.com.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import sports.center.com.repository.NaturalIdRepositoryImpl;
+
+@Configuration
+@EnableJpaRepositories(basePackages = "sports.center.com.repository", repositoryBaseClass = NaturalIdRepositoryImpl.class)
+public class JpaRepositoriesConfig {
+}
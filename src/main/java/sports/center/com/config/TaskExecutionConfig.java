@@ -0,0 +1,21 @@
+package sports.center.com.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.annotation.EnableAsync;
+import sports.center.com.logging.MdcTaskDecorator;
+
+/**
+ * Spring Boot applies a single TaskDecorator bean to the executors it auto-configures, both the thread pool and
+ * the virtual-thread executor, so async MVC handlers and @Async methods log under the caller's transaction id.
+ * With spring.threads.virtual.enabled the same executor runs @Async methods on virtual threads.
+ */
+@EnableAsync
+@Configuration
+public class TaskExecutionConfig {
+    @Bean
+    public TaskDecorator mdcTaskDecorator() {
+        return new MdcTaskDecorator();
+    }
+}
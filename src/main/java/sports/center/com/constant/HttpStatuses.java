@@ -3,11 +3,13 @@ package sports.center.com.constant;
 public final class HttpStatuses {
     public static final String OK = "OK";
     public static final String CREATED = "Created";
+    public static final String NOT_MODIFIED = "Not Modified";
 
     public static final String BAD_REQUEST = "Bad Request";
     public static final String UNAUTHORIZED = "Unauthorized";
     public static final String FORBIDDEN = "Forbidden";
     public static final String NOT_FOUND = "Not Found";
+    public static final String CONFLICT = "Conflict";
     public static final String SEE_OTHER = "See Other";
     public static final String INTERNAL_SERVER_ERROR = "INTERNAL_SERVER_ERROR";
 
@@ -7,21 +7,29 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import sports.center.com.constant.HttpStatuses;
+import sports.center.com.dto.registration.BatchRegistrationResponseDto;
 import sports.center.com.dto.trainee.TraineeRequestDto;
 import sports.center.com.dto.trainee.TraineeResponseDto;
 import sports.center.com.service.AuthService;
 import sports.center.com.service.TraineeService;
 
+import java.util.List;
+
 @Slf4j
 @RestController
 @RequestMapping("/trainee")
 @RequiredArgsConstructor
 @Tag(name = "Trainee Management", description = "Operations related to trainees")
 public class TraineeController {
+    private static final CacheControl PROFILE_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
     private final TraineeService traineeService;
     private final AuthService authService;
 
@@ -38,17 +46,36 @@ public class TraineeController {
         return ResponseEntity.status(HttpStatus.CREATED).body(traineeService.createTrainee(request));
     }
 
+    @Operation(summary = "Register trainees in bulk, reporting a result per item",
+            description = "Invalid items are reported per index. Valid items are saved all-or-nothing: "
+                    + "a database error rolls back the whole batch and fails the request.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = HttpStatuses.OK),
+            @ApiResponse(responseCode = "400", description = HttpStatuses.BAD_REQUEST),
+            @ApiResponse(responseCode = "409", description = HttpStatuses.CONFLICT),
+            @ApiResponse(responseCode = "500", description = HttpStatuses.INTERNAL_SERVER_ERROR)
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<BatchRegistrationResponseDto> registerTrainees(@RequestBody List<TraineeRequestDto> requests) {
+        return ResponseEntity.ok(traineeService.createTrainees(requests));
+    }
+
     @Operation(summary = "Get trainee profile by username")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = HttpStatuses.OK),
+            @ApiResponse(responseCode = "304", description = HttpStatuses.NOT_MODIFIED),
             @ApiResponse(responseCode = "401", description = HttpStatuses.UNAUTHORIZED),
             @ApiResponse(responseCode = "403", description = HttpStatuses.FORBIDDEN),
             @ApiResponse(responseCode = "404", description = HttpStatuses.NOT_FOUND),
             @ApiResponse(responseCode = "500", description = HttpStatuses.INTERNAL_SERVER_ERROR)
     })
     @GetMapping("/username")
-    public ResponseEntity<TraineeResponseDto> getTraineeProfile() {
-        return ResponseEntity.status(HttpStatus.OK).body(traineeService.getTraineeProfile());
+    public ResponseEntity<TraineeResponseDto> getTraineeProfile(WebRequest webRequest) {
+        String eTag = traineeService.getTraineeProfileETag();
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(PROFILE_CACHE_CONTROL).varyBy(HttpHeaders.AUTHORIZATION).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).cacheControl(PROFILE_CACHE_CONTROL).varyBy(HttpHeaders.AUTHORIZATION).body(traineeService.getTraineeProfile());
     }
 
     @Operation(summary = "Update trainee profile")
@@ -7,20 +7,28 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import sports.center.com.constant.HttpStatuses;
+import sports.center.com.dto.registration.BatchRegistrationResponseDto;
 import sports.center.com.dto.trainer.TrainerRequestDto;
 import sports.center.com.dto.trainer.TrainerResponseDto;
 import sports.center.com.service.TrainerService;
 
+import java.util.List;
+
 @Slf4j
 @RestController
 @RequestMapping("/trainer")
 @RequiredArgsConstructor
 @Tag(name = "Trainer Management", description = "Operations related to trainers")
 public class TrainerController {
+    private static final CacheControl PROFILE_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
     private final TrainerService trainerService;
 
     @Operation(summary = "Register new trainer")
@@ -36,6 +44,20 @@ public class TrainerController {
         return ResponseEntity.status(HttpStatus.CREATED).body(trainerService.createTrainer(request));
     }
 
+    @Operation(summary = "Register trainers in bulk, reporting a result per item",
+            description = "Invalid items are reported per index. Valid items are saved all-or-nothing: "
+                    + "a database error rolls back the whole batch and fails the request.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = HttpStatuses.OK),
+            @ApiResponse(responseCode = "400", description = HttpStatuses.BAD_REQUEST),
+            @ApiResponse(responseCode = "409", description = HttpStatuses.CONFLICT),
+            @ApiResponse(responseCode = "500", description = HttpStatuses.INTERNAL_SERVER_ERROR)
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<BatchRegistrationResponseDto> registerTrainers(@RequestBody List<TrainerRequestDto> requests) {
+        return ResponseEntity.ok(trainerService.createTrainers(requests));
+    }
+
     @Operation(summary = "Activate/De-Activate Trainer")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = HttpStatuses.OK),
@@ -53,14 +75,19 @@ public class TrainerController {
     @Operation(summary = "Get trainer profile by username")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = HttpStatuses.OK),
+            @ApiResponse(responseCode = "304", description = HttpStatuses.NOT_MODIFIED),
             @ApiResponse(responseCode = "401", description = HttpStatuses.UNAUTHORIZED),
             @ApiResponse(responseCode = "403", description = HttpStatuses.FORBIDDEN),
             @ApiResponse(responseCode = "404", description = HttpStatuses.NOT_FOUND),
             @ApiResponse(responseCode = "500", description = HttpStatuses.INTERNAL_SERVER_ERROR)
     })
     @GetMapping("/username")
-    public ResponseEntity<TrainerResponseDto> getTrainerProfile() {
-        return ResponseEntity.status(HttpStatus.OK).body(trainerService.getTrainerProfile());
+    public ResponseEntity<TrainerResponseDto> getTrainerProfile(WebRequest webRequest) {
+        String eTag = trainerService.getTrainerProfileETag();
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(PROFILE_CACHE_CONTROL).varyBy(HttpHeaders.AUTHORIZATION).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).cacheControl(PROFILE_CACHE_CONTROL).varyBy(HttpHeaders.AUTHORIZATION).body(trainerService.getTrainerProfile());
     }
 
     @Operation(summary = "Update trainer profile")
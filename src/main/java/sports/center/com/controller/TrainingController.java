@@ -4,20 +4,25 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotEmpty;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import sports.center.com.constant.HttpStatuses;
 import sports.center.com.dto.trainer.TrainerResponseDto;
 import sports.center.com.dto.training.TrainingRequestDto;
-import sports.center.com.dto.training.TrainingResponseDto;
 import sports.center.com.dto.training.TrainingTypeResponseDto;
 import sports.center.com.service.TrainingService;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.util.Date;
 import java.util.List;
 
@@ -26,6 +31,9 @@ import java.util.List;
 @RequiredArgsConstructor
 @Tag(name = "Training Management", description = "Operations related to trainings")
 public class TrainingController {
+    private static final CacheControl TRAINING_TYPES_CACHE_CONTROL = CacheControl.maxAge(Duration.ofMinutes(5)).cachePrivate();
+    private static final String DEFAULT_PAGE_SIZE = "50";
+
     private final TrainingService trainingService;
 
     @Operation(summary = "Add a new training")
@@ -77,14 +85,21 @@ public class TrainingController {
             @ApiResponse(responseCode = "500", description = HttpStatuses.INTERNAL_SERVER_ERROR)
     })
     @GetMapping("/trainee")
-    public ResponseEntity<List<TrainingResponseDto>> getTraineeTrainings(
+    public ResponseEntity<?> getTraineeTrainings(
             @RequestParam(value = "fromDate", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") Date fromDate,
             @RequestParam(value = "toDate", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") Date toDate,
             @RequestParam(value = "trainerName", required = false) String trainerName,
-            @RequestParam(value = "trainingType", required = false) String trainingType) {
+            @RequestParam(value = "trainingType", required = false) String trainingType,
+            @RequestParam(value = "limit", defaultValue = DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "unpaged", defaultValue = "false") boolean unpaged) {
 
+        if (unpaged) {
+            return ResponseEntity.status(HttpStatus.OK).body(trainingService.getTraineeTrainings(fromDate, toDate
+                    , trainerName, trainingType));
+        }
         return ResponseEntity.status(HttpStatus.OK).body(trainingService.getTraineeTrainings(fromDate, toDate
-                , trainerName, trainingType));
+                , trainerName, trainingType, cursor, limit));
     }
 
     @Operation(summary = "Update Trainee Trainer's list")
@@ -96,17 +111,63 @@ public class TrainingController {
             @ApiResponse(responseCode = "500", description = HttpStatuses.INTERNAL_SERVER_ERROR)
     })
     @GetMapping("/trainer")
-    public ResponseEntity<List<TrainingResponseDto>> getTrainerTrainings(
+    public ResponseEntity<?> getTrainerTrainings(
             @RequestParam(value = "fromDate", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") Date fromDate,
             @RequestParam(value = "toDate", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") Date toDate,
-            @RequestParam(value = "traineeName", required = false) String traineeName) {
+            @RequestParam(value = "traineeName", required = false) String traineeName,
+            @RequestParam(value = "limit", defaultValue = DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "unpaged", defaultValue = "false") boolean unpaged) {
 
+        if (unpaged) {
+            return ResponseEntity.status(HttpStatus.OK).body(trainingService.getTrainerTrainings(fromDate, toDate
+                    , traineeName));
+        }
         return ResponseEntity.status(HttpStatus.OK).body(trainingService.getTrainerTrainings(fromDate, toDate
-                , traineeName));
+                , traineeName, cursor, limit));
+    }
+
+    @Operation(summary = "Stream the authenticated trainee's trainings as newline-delimited JSON")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = HttpStatuses.OK),
+            @ApiResponse(responseCode = "401", description = HttpStatuses.UNAUTHORIZED),
+            @ApiResponse(responseCode = "500", description = HttpStatuses.INTERNAL_SERVER_ERROR)
+    })
+    @GetMapping(value = "/trainee/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamTraineeTrainings(
+            @RequestParam(value = "fromDate", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") Date fromDate,
+            @RequestParam(value = "toDate", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") Date toDate,
+            @RequestParam(value = "trainerName", required = false) String trainerName,
+            @RequestParam(value = "trainingType", required = false) String trainingType,
+            HttpServletResponse response) throws IOException {
+
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        trainingService.exportTraineeTrainings(fromDate, toDate, trainerName, trainingType, response.getOutputStream());
+    }
+
+    @Operation(summary = "Stream the authenticated trainer's trainings as newline-delimited JSON")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = HttpStatuses.OK),
+            @ApiResponse(responseCode = "401", description = HttpStatuses.UNAUTHORIZED),
+            @ApiResponse(responseCode = "500", description = HttpStatuses.INTERNAL_SERVER_ERROR)
+    })
+    @GetMapping(value = "/trainer/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamTrainerTrainings(
+            @RequestParam(value = "fromDate", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") Date fromDate,
+            @RequestParam(value = "toDate", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") Date toDate,
+            @RequestParam(value = "traineeName", required = false) String traineeName,
+            HttpServletResponse response) throws IOException {
+
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        trainingService.exportTrainerTrainings(fromDate, toDate, traineeName, response.getOutputStream());
     }
 
     @GetMapping("/training-types")
-    public ResponseEntity<List<TrainingTypeResponseDto>> getTrainingTypes() {
-        return ResponseEntity.status(HttpStatus.OK).body(trainingService.getTrainingType());
+    public ResponseEntity<List<TrainingTypeResponseDto>> getTrainingTypes(WebRequest webRequest) {
+        String eTag = trainingService.getTrainingTypesETag();
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(TRAINING_TYPES_CACHE_CONTROL).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).cacheControl(TRAINING_TYPES_CACHE_CONTROL).body(trainingService.getTrainingType());
     }
 }
\ No newline at end of file
@@ -0,0 +1,55 @@
+package sports.center.com.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator view of every Hikari pool: current usage, threads waiting for a connection and how close the pool is
+ * to its maximum size. A pool with waiting threads is reported as SATURATED.
+ */
+@Component
+@RequiredArgsConstructor
+@Endpoint(id = "connectionpools")
+public class ConnectionPoolEndpoint {
+    static final double HIGH_USAGE_RATIO = 0.8;
+
+    private final ObjectProvider<HikariDataSource> dataSources;
+
+    @ReadOperation
+    public Map<String, Object> pools() {
+        Map<String, Object> pools = new LinkedHashMap<>();
+        dataSources.orderedStream().forEach(dataSource -> pools.put(dataSource.getPoolName(), describe(dataSource)));
+        return pools;
+    }
+
+    private Map<String, Object> describe(HikariDataSource dataSource) {
+        Map<String, Object> details = new LinkedHashMap<>();
+        int max = dataSource.getMaximumPoolSize();
+        details.put("max", max);
+
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        if (pool == null) {
+            details.put("status", "NOT_STARTED");
+            return details;
+        }
+
+        int active = pool.getActiveConnections();
+        int pending = pool.getThreadsAwaitingConnection();
+        double saturation = max == 0 ? 0 : (double) active / max;
+        details.put("active", active);
+        details.put("idle", pool.getIdleConnections());
+        details.put("total", pool.getTotalConnections());
+        details.put("pending", pending);
+        details.put("saturation", Math.round(saturation * 100) / 100.0);
+        details.put("status", pending > 0 ? "SATURATED" : saturation >= HIGH_USAGE_RATIO ? "HIGH" : "OK");
+        return details;
+    }
+}
@@ -0,0 +1,6 @@
+package sports.center.com.datasource;
+
+public enum DataSourceRoute {
+    PRIMARY,
+    REPLICA
+}
@@ -0,0 +1,50 @@
+package sports.center.com.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+
+/**
+ * Periodically measures how far the replica lags behind the primary. Until the first successful check, and after
+ * any failed one, the replica is reported as unusable so read-only work falls back to the primary.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+    // The replay timestamp only advances when the primary commits, so an idle primary would make a caught-up
+    // replica look ever more behind; once everything received has been replayed the lag is zero
+    static final String LAG_SQL = """
+            SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0
+                        WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                        ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END
+            """;
+
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final long maxLagMillis;
+    private volatile long lagMillis = -1;
+
+    public ReplicaLagMonitor(JdbcTemplate replicaJdbcTemplate, Duration maxLag, MeterRegistry meterRegistry) {
+        this.replicaJdbcTemplate = replicaJdbcTemplate;
+        this.maxLagMillis = maxLag.toMillis();
+        meterRegistry.gauge("datasource_replica_lag_seconds", this, monitor -> monitor.lagMillis / 1000.0);
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval:PT5S}")
+    public void checkLag() {
+        try {
+            Number lag = replicaJdbcTemplate.queryForObject(LAG_SQL, Number.class);
+            lagMillis = lag == null ? -1 : lag.longValue();
+        } catch (DataAccessException e) {
+            log.warn("Replica lag check failed, routing reads to primary: {}", e.getMessage());
+            lagMillis = -1;
+        }
+    }
+
+    public boolean isReplicaUsable() {
+        long lag = lagMillis;
+        return lag >= 0 && lag <= maxLagMillis;
+    }
+}
@@ -0,0 +1,39 @@
+package sports.center.com.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends connections of read-only transactions to the replica while it keeps up with the primary, and everything
+ * else to the primary. Has to sit behind a LazyConnectionDataSourceProxy, otherwise the connection is fetched
+ * before the transaction is marked read-only.
+ */
+public class TransactionRoutingDataSource extends AbstractRoutingDataSource {
+    private final ReplicaLagMonitor lagMonitor;
+    private final Counter primaryCounter;
+    private final Counter replicaCounter;
+    private final Counter fallbackCounter;
+
+    public TransactionRoutingDataSource(ReplicaLagMonitor lagMonitor, MeterRegistry meterRegistry) {
+        this.lagMonitor = lagMonitor;
+        this.primaryCounter = meterRegistry.counter("datasource_routing_total", "target", "primary", "reason", "read_write");
+        this.replicaCounter = meterRegistry.counter("datasource_routing_total", "target", "replica", "reason", "read_only");
+        this.fallbackCounter = meterRegistry.counter("datasource_routing_total", "target", "primary", "reason", "replica_lag");
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            primaryCounter.increment();
+            return DataSourceRoute.PRIMARY;
+        }
+        if (!lagMonitor.isReplicaUsable()) {
+            fallbackCounter.increment();
+            return DataSourceRoute.PRIMARY;
+        }
+        replicaCounter.increment();
+        return DataSourceRoute.REPLICA;
+    }
+}
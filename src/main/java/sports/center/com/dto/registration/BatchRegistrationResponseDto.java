@@ -0,0 +1,21 @@
+package sports.center.com.dto.registration;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Per-item results of a bulk registration. Only validation errors are reported per item: all valid items are
+ * saved in one transaction, so a database error rolls back the whole batch and is answered as a single error.
+ */
+@Getter
+@Setter
+@EqualsAndHashCode
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BatchRegistrationResponseDto {
+    private int created;
+    private int failed;
+    private List<RegistrationResultDto> results;
+}
@@ -0,0 +1,18 @@
+package sports.center.com.dto.registration;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+@Getter
+@Setter
+@EqualsAndHashCode
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RegistrationResultDto {
+    private int index;
+    private String username;
+    private String password;
+    private String error;
+}
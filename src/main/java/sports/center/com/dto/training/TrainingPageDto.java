@@ -0,0 +1,18 @@
+package sports.center.com.dto.training;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@EqualsAndHashCode
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TrainingPageDto {
+    private List<TrainingResponseDto> trainings;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+}
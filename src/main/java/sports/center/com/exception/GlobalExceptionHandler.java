@@ -3,21 +3,31 @@ package sports.center.com.exception;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import sports.center.com.exception.exceptions.*;
+import sports.center.com.logging.CorrelationIdFilter;
 
+import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.UUID;
 import java.util.stream.Collectors;
 
+/**
+ * Every handler declares the status it answers with in {@link ResponseStatus}, which RequestMetricsAspect reads
+ * to tag failed controller calls with the outcome the client actually sees.
+ */
 @Slf4j
 @RestControllerAdvice
 public class GlobalExceptionHandler {
+    private static final String UNIQUE_VIOLATION_SQL_STATE = "23505";
 
     @ExceptionHandler({
             TraineeNotFoundException.class,
@@ -25,6 +35,7 @@ public class GlobalExceptionHandler {
             TrainingTypeNotFoundException.class,
             SpecializationNotFoundException.class
     })
+    @ResponseStatus(HttpStatus.NOT_FOUND)
     public ResponseEntity<Map<String, String>> handleNotFoundExceptions(RuntimeException ex) {
         log.warn("Not Found: {}", ex.getMessage());
         return buildErrorResponse(ex.getMessage(), HttpStatus.NOT_FOUND);
@@ -36,11 +47,13 @@ public class GlobalExceptionHandler {
             IllegalArgumentException.class,
             ConstraintViolationException.class
     })
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ResponseEntity<Map<String, String>> handleBadRequestExceptions(RuntimeException ex) {
         log.warn("Bad Request: {}", ex.getMessage());
         return buildErrorResponse(ex.getMessage(), HttpStatus.BAD_REQUEST);
     }
 
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, String>> handleValidationException(MethodArgumentNotValidException ex) {
         Map<String, String> errors = ex.getBindingResult().getFieldErrors()
@@ -60,6 +73,7 @@ public class GlobalExceptionHandler {
             InvalidTrainerRequestException.class,
             InvalidTrainingRequestException.class
     })
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ResponseEntity<Map<String, Object>> handleInvalidRequestExceptions(BaseValidationException ex) {
         log.warn("Validation error: {}", ex.getMessage());
 
@@ -72,28 +86,64 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
 
+    @ResponseStatus(HttpStatus.UNAUTHORIZED)
     @ExceptionHandler(UnauthorizedException.class)
     public ResponseEntity<Map<String, String>> handleUnauthorizedException(UnauthorizedException ex) {
         log.warn("Unauthorized: {}", ex.getMessage());
         return buildErrorResponse(ex.getMessage(), HttpStatus.UNAUTHORIZED);
     }
 
+    @ExceptionHandler({
+            UsernameAllocationException.class,
+            ObjectOptimisticLockingFailureException.class
+    })
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ResponseEntity<Map<String, String>> handleConflictExceptions(RuntimeException ex) {
+        log.warn("Conflict: {}", ex.getMessage());
+        return buildErrorResponse("Request conflicts with the current state, please retry", HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Only a unique violation can succeed on retry; NOT NULL, foreign key and length violations cannot. Unique
+     * violations are answered with 409 instead of the declared 400, which is the same 4xx series.
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ResponseEntity<Map<String, String>> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+        if (hasSqlState(ex, UNIQUE_VIOLATION_SQL_STATE)) {
+            return handleConflictExceptions(ex);
+        }
+        log.warn("Data integrity violation: {}", ex.getMessage());
+        return buildErrorResponse("Request violates a data constraint", HttpStatus.BAD_REQUEST);
+    }
+
+    @ResponseStatus(HttpStatus.UNAUTHORIZED)
     @ExceptionHandler(SecurityException.class)
     public ResponseEntity<String> handleSecurityException(SecurityException e) {
-        String transactionId = UUID.randomUUID().toString();
-        log.warn("[{}] Security issue: {}", transactionId, e.getMessage());
+        String transactionId = MDC.get(CorrelationIdFilter.MDC_KEY);
+        log.warn("Security issue: {}", e.getMessage());
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                 .body("Unauthorized. Transaction ID: " + transactionId);
     }
 
+    @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     @ExceptionHandler(Exception.class)
     public ResponseEntity<String> handleGenericException(Exception e) {
-        String transactionId = UUID.randomUUID().toString();
-        log.error("[{}] Internal Error: {}", transactionId, e.getMessage(), e);
+        String transactionId = MDC.get(CorrelationIdFilter.MDC_KEY);
+        log.error("Internal Error: {}", e.getMessage(), e);
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body("Internal Server Error. Transaction ID: " + transactionId);
     }
 
+    private static boolean hasSqlState(Throwable ex, String sqlState) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && sqlState.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private ResponseEntity<Map<String, String>> buildErrorResponse(String message, HttpStatus status) {
         Map<String, String> errorResponse = new HashMap<>();
         errorResponse.put("error", message);
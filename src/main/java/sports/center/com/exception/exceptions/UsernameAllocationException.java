@@ -0,0 +1,7 @@
+package sports.center.com.exception.exceptions;
+
+public class UsernameAllocationException extends RuntimeException {
+    public UsernameAllocationException(String baseUsername) {
+        super("Could not allocate a free username for: " + baseUsername);
+    }
+}
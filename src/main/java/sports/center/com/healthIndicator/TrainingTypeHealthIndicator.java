@@ -4,16 +4,16 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthIndicator;
 import org.springframework.stereotype.Component;
-import sports.center.com.repository.TrainingTypeRepository;
+import sports.center.com.cache.TrainingTypeCatalog;
 
 @Component
 @RequiredArgsConstructor
 public class TrainingTypeHealthIndicator implements HealthIndicator {
-    private final TrainingTypeRepository trainingTypeRepository;
+    private final TrainingTypeCatalog trainingTypeCatalog;
 
     @Override
     public Health health() {
-        long count = trainingTypeRepository.count();
+        long count = trainingTypeCatalog.size();
         if (count > 0) {
             return Health.up().withDetail("trainingTypes", "Available").build();
         } else {
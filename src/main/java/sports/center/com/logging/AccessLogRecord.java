@@ -0,0 +1,9 @@
+package sports.center.com.logging;
+
+/**
+ * One completed request as handed from the request thread to the access-log writer. Headers and body are
+ * already redacted and are null when they were not captured.
+ */
+public record AccessLogRecord(long timestamp, String transactionId, String method, String uri, int status,
+                              long durationNanos, String headers, String body) {
+}
@@ -0,0 +1,102 @@
+package sports.center.com.logging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drains access-log records from the ring buffer on a single background thread, so request threads never format
+ * or write log lines themselves. Records offered while the buffer is full are dropped and counted.
+ */
+@Slf4j
+@Component
+public class AccessLogWriter {
+    private static final Logger ACCESS_LOG = LoggerFactory.getLogger("ACCESS_LOG");
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final AccessLogRingBuffer buffer;
+    private final Counter droppedCounter;
+    private final Thread drainer;
+    private volatile boolean running = true;
+
+    public AccessLogWriter(MeterRegistry meterRegistry,
+                           @Value("${access-log.buffer-size:8192}") int bufferSize) {
+        this.buffer = new AccessLogRingBuffer(bufferSize);
+        this.droppedCounter = meterRegistry.counter("access_log_dropped_total");
+        meterRegistry.gauge("access_log_buffer_size", buffer, AccessLogRingBuffer::size);
+
+        this.drainer = new Thread(this::drainLoop, "access-log-writer");
+        this.drainer.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        drainer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(drainer);
+        drainer.join(Duration.ofSeconds(2).toMillis());
+    }
+
+    public void submit(AccessLogRecord record) {
+        if (!buffer.offer(record)) {
+            droppedCounter.increment();
+        }
+    }
+
+    /**
+     * Writes every record currently in the buffer and returns how many were written.
+     */
+    public int drainPending() {
+        int written = 0;
+        AccessLogRecord record;
+        while ((record = buffer.poll()) != null) {
+            write(record);
+            written++;
+        }
+        return written;
+    }
+
+    private void drainLoop() {
+        while (running) {
+            try {
+                if (drainPending() == 0) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Access log writer failed to write a record: {}", e.getMessage());
+            }
+        }
+        drainPending();
+    }
+
+    private void write(AccessLogRecord record) {
+        if (!ACCESS_LOG.isInfoEnabled()) {
+            return;
+        }
+        // The line is written on the drainer thread, so the request's transaction id is restored for the pattern
+        // and the request's own completion time is printed next to the time the line was written
+        try (MDC.MDCCloseable ignored = MDC.putCloseable(CorrelationIdFilter.MDC_KEY, record.transactionId())) {
+            ACCESS_LOG.info("{} [{}] {} | Status: {} | Duration: {} ms | Headers: {} | Body: {}",
+                    Instant.ofEpochMilli(record.timestamp()), record.method(), record.uri(), record.status(),
+                    TimeUnit.NANOSECONDS.toMillis(record.durationNanos()),
+                    record.headers() == null ? "-" : record.headers(),
+                    record.body() == null ? "-" : record.body());
+        }
+    }
+}
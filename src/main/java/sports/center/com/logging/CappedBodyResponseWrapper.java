@@ -0,0 +1,129 @@
+package sports.center.com.logging;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Passes the response body straight through to the client while keeping a copy of at most {@code maxBytes}
+ * for the access log. Unlike ContentCachingResponseWrapper nothing is held back, so the body is never buffered
+ * in full and streaming responses keep streaming.
+ */
+public class CappedBodyResponseWrapper extends HttpServletResponseWrapper {
+    private final int maxBytes;
+    private final ByteArrayOutputStream captured;
+    private long totalBytes;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    public CappedBodyResponseWrapper(HttpServletResponse response, int maxBytes) {
+        super(response);
+        this.maxBytes = maxBytes;
+        this.captured = new ByteArrayOutputStream(Math.min(maxBytes, 256));
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new TeeOutputStream(super.getOutputStream());
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), charset()), false);
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        super.flushBuffer();
+    }
+
+    /**
+     * Pushes out characters still pending in the writer, so they are both sent and captured.
+     */
+    public void flushWriter() {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    public String getCapturedBody() {
+        if (totalBytes == 0) {
+            return null;
+        }
+        String body = captured.toString(charset());
+        return totalBytes > captured.size() ? body + "...(" + totalBytes + " bytes)" : body;
+    }
+
+    private Charset charset() {
+        String encoding = getCharacterEncoding();
+        return encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding);
+    }
+
+    private void capture(byte[] bytes, int offset, int length) {
+        totalBytes += length;
+        int remaining = maxBytes - captured.size();
+        if (remaining > 0) {
+            captured.write(bytes, offset, Math.min(length, remaining));
+        }
+    }
+
+    private class TeeOutputStream extends ServletOutputStream {
+        private final ServletOutputStream delegate;
+
+        TeeOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            totalBytes++;
+            if (captured.size() < maxBytes) {
+                captured.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            delegate.write(bytes, offset, length);
+            capture(bytes, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package sports.center.com.logging;
+
+import jakarta.servlet.*;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import sports.center.com.service.TransactionService;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+/**
+ * Assigns the transaction id of a request before any other filter runs. A well-formed inbound
+ * {@code X-Transaction-Id} is reused, otherwise a new one is generated. The id is stored as a request attribute,
+ * echoed in the response header and put into the MDC, where the log pattern picks it up for every line.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class CorrelationIdFilter implements Filter {
+    public static final String TRANSACTION_ID_HEADER = "X-Transaction-Id";
+    public static final String TRANSACTION_ID_ATTRIBUTE = TRANSACTION_ID_HEADER;
+    public static final String MDC_KEY = "transactionId";
+
+    private static final Pattern VALID_TRANSACTION_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    private final TransactionService transactionService;
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
+
+        String transactionId = httpRequest.getHeader(TRANSACTION_ID_HEADER);
+        if (transactionId == null || !VALID_TRANSACTION_ID.matcher(transactionId).matches()) {
+            transactionId = transactionService.generateTransactionId();
+        }
+
+        httpRequest.setAttribute(TRANSACTION_ID_ATTRIBUTE, transactionId);
+        httpResponse.setHeader(TRANSACTION_ID_HEADER, transactionId);
+        MDC.put(MDC_KEY, transactionId);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            MDC.remove(MDC_KEY);
+        }
+    }
+}
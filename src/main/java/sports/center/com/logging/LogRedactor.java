@@ -0,0 +1,49 @@
+package sports.center.com.logging;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.Enumeration;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Masks credentials before anything reaches the access log: the values of authentication headers and of JSON
+ * fields whose name mentions a password, token or secret.
+ */
+public final class LogRedactor {
+    static final String MASK = "***";
+
+    private static final Set<String> SENSITIVE_HEADERS = Set.of("authorization", "proxy-authorization", "cookie", "set-cookie");
+    private static final Pattern SENSITIVE_JSON_FIELD = Pattern.compile(
+            "(\"[^\"]*(?:password|token|secret)[^\"]*\"\\s*:\\s*)\"(?:[^\"\\\\]|\\\\.)*\"", Pattern.CASE_INSENSITIVE);
+
+    private LogRedactor() {
+    }
+
+    public static String redactHeaders(HttpServletRequest request) {
+        Enumeration<String> headerNames = request.getHeaderNames();
+        if (headerNames == null || !headerNames.hasMoreElements()) {
+            return "";
+        }
+        StringBuilder headers = new StringBuilder(128);
+        while (headerNames.hasMoreElements()) {
+            String headerName = headerNames.nextElement();
+            headers.append(headerName).append(": ");
+            if (SENSITIVE_HEADERS.contains(headerName.toLowerCase(Locale.ROOT))) {
+                headers.append(MASK);
+            } else {
+                headers.append(request.getHeader(headerName));
+            }
+            headers.append("; ");
+        }
+        return headers.toString();
+    }
+
+    public static String redactBody(String body) {
+        if (body == null || body.isEmpty()) {
+            return body;
+        }
+        return SENSITIVE_JSON_FIELD.matcher(body).replaceAll("$1\"" + MASK + "\"");
+    }
+}
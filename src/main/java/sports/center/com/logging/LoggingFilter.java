@@ -3,60 +3,68 @@ package sports.center.com.logging;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.extern.slf4j.Slf4j;
-import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.util.AntPathMatcher;
 
 import java.io.IOException;
-import java.util.Enumeration;
-import java.util.UUID;
 
+/**
+ * Writes one access-log record per request, tagged with the id assigned by {@link CorrelationIdFilter}. The record
+ * is built on the request thread and handed to {@link AccessLogWriter}, which formats and writes it in the
+ * background. Response bodies are only captured for routes listed in {@code access-log.body-capture.paths},
+ * capped in size and redacted.
+ */
 @Component
-@Slf4j
 public class LoggingFilter implements Filter {
-    private static final String TRANSACTION_ID_HEADER = "X-Transaction-Id";
+    private final AccessLogWriter accessLogWriter;
+    private final String[] bodyCapturePaths;
+    private final int maxBodyBytes;
+    private final boolean includeHeaders;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public LoggingFilter(AccessLogWriter accessLogWriter,
+                         @Value("${access-log.body-capture.paths:}") String[] bodyCapturePaths,
+                         @Value("${access-log.body-capture.max-bytes:2048}") int maxBodyBytes,
+                         @Value("${access-log.include-headers:false}") boolean includeHeaders) {
+        this.accessLogWriter = accessLogWriter;
+        this.bodyCapturePaths = bodyCapturePaths;
+        this.maxBodyBytes = maxBodyBytes;
+        this.includeHeaders = includeHeaders;
+    }
 
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
         HttpServletRequest req = (HttpServletRequest) request;
         HttpServletResponse res = (HttpServletResponse) response;
-        ContentCachingResponseWrapper wrappedResponse = new ContentCachingResponseWrapper(res);
 
-        String transactionId = (String) req.getAttribute(TRANSACTION_ID_HEADER);
-        if (transactionId == null || transactionId.isEmpty()) {
-            transactionId = UUID.randomUUID().toString();
-            req.setAttribute(TRANSACTION_ID_HEADER, transactionId);
+        String transactionId = (String) req.getAttribute(CorrelationIdFilter.TRANSACTION_ID_ATTRIBUTE);
+        long startNanos = System.nanoTime();
+        CappedBodyResponseWrapper capturingResponse = isBodyCaptured(req) ? new CappedBodyResponseWrapper(res, maxBodyBytes) : null;
+        try {
+            chain.doFilter(req, capturingResponse != null ? capturingResponse : res);
+        } finally {
+            String body = null;
+            if (capturingResponse != null) {
+                capturingResponse.flushWriter();
+                body = LogRedactor.redactBody(capturingResponse.getCapturedBody());
+            }
+            accessLogWriter.submit(new AccessLogRecord(System.currentTimeMillis(), transactionId, req.getMethod(),
+                    req.getRequestURI(), res.getStatus(), System.nanoTime() - startNanos,
+                    includeHeaders ? LogRedactor.redactHeaders(req) : null, body));
         }
-        MDC.put("transactionId", transactionId);
-
-        log.info("Transaction [{}] - Incoming Request: [{}] {} | Headers: {}",
-                transactionId, req.getMethod(), req.getRequestURI(), getHeaders(req));
-
-        chain.doFilter(req, wrappedResponse);
-
-        wrappedResponse.copyBodyToResponse();
-        int status = wrappedResponse.getStatus();
-        String responseBody = getResponseBody(wrappedResponse);
-
-        log.info("Transaction [{}] - Response: [{}] {} | Status: {} | Body: {}",
-                transactionId, req.getMethod(), req.getRequestURI(), status, responseBody);
-
-        MDC.clear();
     }
 
-    private String getHeaders(HttpServletRequest request) {
-        Enumeration<String> headerNames = request.getHeaderNames();
-        StringBuilder headers = new StringBuilder();
-        while (headerNames.hasMoreElements()) {
-            String headerName = headerNames.nextElement();
-            headers.append(headerName).append(": ").append(request.getHeader(headerName)).append("; ");
+    private boolean isBodyCaptured(HttpServletRequest request) {
+        String requestURI = request.getRequestURI();
+        if (requestURI == null) {
+            return false;
         }
-        return headers.toString();
-    }
-
-    private String getResponseBody(ContentCachingResponseWrapper response) {
-        byte[] content = response.getContentAsByteArray();
-        return (content.length > 0) ? new String(content) : "No body";
+        for (String pattern : bodyCapturePaths) {
+            if (pathMatcher.match(pattern, requestURI)) {
+                return true;
+            }
+        }
+        return false;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,193 @@
+package sports.center.com.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CollectionStatistics;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publishes Hibernate statistics through the application's MeterRegistry when {@code metrics.hibernate.enabled}
+ * is set, which also turns on hibernate.generate_statistics. All counters are monotonic, so dashboards should
+ * graph them with rate(). Metric names:
+ * <pre>
+ * hibernate_sessions_opened_total                      sessions opened
+ * hibernate_flushes_total                              flushes
+ * hibernate_transactions_total                         completed transactions
+ * hibernate_statements_prepared_total                  JDBC statements prepared
+ * hibernate_query_cache_requests_total{result}         query cache hit / miss / put
+ * hibernate_second_level_cache_requests_total{result}  second-level cache hit / miss / put
+ * hibernate_natural_id_cache_requests_total{result}    natural-id cache hit / miss / put
+ * hibernate_entity_operations_total{entity,operation}  load / fetch / insert / update / delete per entity
+ * hibernate_collection_operations_total{role,operation} load / fetch / recreate / update / remove per collection
+ * hibernate_query_executions_total{query}              executions per HQL/criteria query
+ * hibernate_query_rows_total{query}                    rows returned per query
+ * hibernate_query_execution_seconds_total{query}       time spent per query
+ * hibernate_query_execution_max_seconds{query}         slowest single execution per query
+ * </pre>
+ * A collection fetch rate close to the entity load rate of its owner is the usual sign of an N+1 pattern.
+ * Queries only show up in the statistics once they have run, so new ones are picked up periodically, up to
+ * {@code metrics.hibernate.max-queries}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "metrics.hibernate.enabled", havingValue = "true")
+public class HibernateStatisticsMetrics implements MeterBinder {
+    private static final int MAX_QUERY_TAG_LENGTH = 200;
+
+    private final Statistics statistics;
+    private final int maxQueries;
+    private final Set<String> registeredQueries = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean limitReported = new AtomicBoolean();
+    private volatile MeterRegistry registry;
+
+    public HibernateStatisticsMetrics(EntityManagerFactory entityManagerFactory,
+                                      @Value("${metrics.hibernate.max-queries:200}") int maxQueries) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.maxQueries = maxQueries;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+
+        counter(registry, "hibernate_sessions_opened", Tags.empty(), Statistics::getSessionOpenCount);
+        counter(registry, "hibernate_flushes", Tags.empty(), Statistics::getFlushCount);
+        counter(registry, "hibernate_transactions", Tags.empty(), Statistics::getTransactionCount);
+        counter(registry, "hibernate_statements_prepared", Tags.empty(), Statistics::getPrepareStatementCount);
+
+        cacheCounters(registry, "hibernate_query_cache_requests", Statistics::getQueryCacheHitCount,
+                Statistics::getQueryCacheMissCount, Statistics::getQueryCachePutCount);
+        cacheCounters(registry, "hibernate_second_level_cache_requests", Statistics::getSecondLevelCacheHitCount,
+                Statistics::getSecondLevelCacheMissCount, Statistics::getSecondLevelCachePutCount);
+        cacheCounters(registry, "hibernate_natural_id_cache_requests", Statistics::getNaturalIdCacheHitCount,
+                Statistics::getNaturalIdCacheMissCount, Statistics::getNaturalIdCachePutCount);
+
+        for (String entityName : statistics.getEntityNames()) {
+            bindEntity(registry, entityName);
+        }
+        for (String role : statistics.getCollectionRoleNames()) {
+            bindCollection(registry, role);
+        }
+        registerNewQueries();
+    }
+
+    @Scheduled(initialDelayString = "${metrics.hibernate.query-refresh-interval:PT1M}",
+            fixedDelayString = "${metrics.hibernate.query-refresh-interval:PT1M}")
+    public void registerNewQueries() {
+        MeterRegistry meterRegistry = registry;
+        if (meterRegistry == null) {
+            return;
+        }
+        for (String query : statistics.getQueries()) {
+            if (registeredQueries.contains(query)) {
+                continue;
+            }
+            if (registeredQueries.size() >= maxQueries) {
+                if (limitReported.compareAndSet(false, true)) {
+                    log.warn("Hibernate query metrics limit of {} reached, further queries are not tracked", maxQueries);
+                }
+                return;
+            }
+            if (registeredQueries.add(query)) {
+                bindQuery(meterRegistry, query);
+            }
+        }
+    }
+
+    private void bindEntity(MeterRegistry registry, String entityName) {
+        EntityStatistics entity = statistics.getEntityStatistics(entityName);
+        String simpleName = entityName.substring(entityName.lastIndexOf('.') + 1);
+        entityCounter(registry, simpleName, "load", entity, EntityStatistics::getLoadCount);
+        entityCounter(registry, simpleName, "fetch", entity, EntityStatistics::getFetchCount);
+        entityCounter(registry, simpleName, "insert", entity, EntityStatistics::getInsertCount);
+        entityCounter(registry, simpleName, "update", entity, EntityStatistics::getUpdateCount);
+        entityCounter(registry, simpleName, "delete", entity, EntityStatistics::getDeleteCount);
+    }
+
+    private void bindCollection(MeterRegistry registry, String role) {
+        CollectionStatistics collection = statistics.getCollectionStatistics(role);
+        String simpleRole = role.substring(role.lastIndexOf('.', role.lastIndexOf('.') - 1) + 1);
+        collectionCounter(registry, simpleRole, "load", collection, CollectionStatistics::getLoadCount);
+        collectionCounter(registry, simpleRole, "fetch", collection, CollectionStatistics::getFetchCount);
+        collectionCounter(registry, simpleRole, "recreate", collection, CollectionStatistics::getRecreateCount);
+        collectionCounter(registry, simpleRole, "update", collection, CollectionStatistics::getUpdateCount);
+        collectionCounter(registry, simpleRole, "remove", collection, CollectionStatistics::getRemoveCount);
+    }
+
+    private void bindQuery(MeterRegistry registry, String query) {
+        QueryStatistics queryStatistics = statistics.getQueryStatistics(query);
+        Tags tags = Tags.of("query", queryTag(query));
+        FunctionCounter.builder("hibernate_query_executions", queryStatistics, QueryStatistics::getExecutionCount)
+                .tags(tags).register(registry);
+        FunctionCounter.builder("hibernate_query_rows", queryStatistics, QueryStatistics::getExecutionRowCount)
+                .tags(tags).register(registry);
+        FunctionCounter.builder("hibernate_query_execution_seconds", queryStatistics,
+                        stats -> stats.getExecutionTotalTime() / 1000.0)
+                .tags(tags).register(registry);
+        Gauge.builder("hibernate_query_execution_max_seconds", queryStatistics,
+                        stats -> stats.getExecutionMaxTime() / 1000.0)
+                .tags(tags).register(registry);
+    }
+
+    /**
+     * Long queries are truncated and suffixed with a hash of the full text, so two queries sharing a prefix never
+     * map to the same meter id.
+     */
+    private static String queryTag(String query) {
+        if (query.length() <= MAX_QUERY_TAG_LENGTH) {
+            return query;
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(query.getBytes(StandardCharsets.UTF_8));
+            return query.substring(0, MAX_QUERY_TAG_LENGTH - 17) + "#" + HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private void counter(MeterRegistry registry, String name, Tags tags, ToDoubleFunction<Statistics> count) {
+        FunctionCounter.builder(name, statistics, count).tags(tags).register(registry);
+    }
+
+    private void cacheCounters(MeterRegistry registry, String name, ToDoubleFunction<Statistics> hits,
+                               ToDoubleFunction<Statistics> misses, ToDoubleFunction<Statistics> puts) {
+        counter(registry, name, Tags.of("result", "hit"), hits);
+        counter(registry, name, Tags.of("result", "miss"), misses);
+        counter(registry, name, Tags.of("result", "put"), puts);
+    }
+
+    private void entityCounter(MeterRegistry registry, String entity, String operation, EntityStatistics statistics,
+                               ToDoubleFunction<EntityStatistics> count) {
+        FunctionCounter.builder("hibernate_entity_operations", statistics, count)
+                .tags("entity", entity, "operation", operation)
+                .register(registry);
+    }
+
+    private void collectionCounter(MeterRegistry registry, String role, String operation,
+                                   CollectionStatistics statistics, ToDoubleFunction<CollectionStatistics> count) {
+        FunctionCounter.builder("hibernate_collection_operations", statistics, count)
+                .tags("role", role, "operation", operation)
+                .register(registry);
+    }
+}
@@ -0,0 +1,166 @@
+package sports.center.com.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import sports.center.com.dto.training.TrainingPageDto;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.BaseStream;
+
+/**
+ * Times every call through a Spring Data repository, custom fragments such as TrainingRepositoryImpl included,
+ * and the username allocation queries of UsernameUtil. Each repository method gets a repository_invocations timer
+ * and a repository_rows summary of the rows it returned; both are resolved once and cached. Calls slower than
+ * {@code metrics.repository.slow-threshold} are logged with the shapes of their arguments, never the values.
+ * Methods returning a Stream are timed until the stream is opened, not until it is consumed.
+ */
+@Slf4j
+@Aspect
+@Component
+public class RepositoryMetricsAspect {
+    public static final String TIMER_NAME = "repository_invocations";
+    public static final String ROWS_NAME = "repository_rows";
+    private static final String REPOSITORY_PACKAGE = "sports.center.com.repository";
+
+    private final MeterRegistry meterRegistry;
+    private final long slowThresholdNanos;
+    private final Duration[] serviceLevelObjectives;
+    private final Map<Class<?>, Map<Method, RepositoryMeters>> metersByType = new ConcurrentHashMap<>();
+
+    public RepositoryMetricsAspect(MeterRegistry meterRegistry,
+                                   @Value("${metrics.repository.slow-threshold:PT0.2S}") Duration slowThreshold,
+                                   @Value("${metrics.repository.slo:1ms,5ms,10ms,25ms,50ms,100ms,250ms,1s}")
+                                   Duration[] serviceLevelObjectives) {
+        this.meterRegistry = meterRegistry;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.serviceLevelObjectives = serviceLevelObjectives;
+    }
+
+    @Pointcut("this(org.springframework.data.repository.Repository)")
+    public void repositories() {}
+
+    @Pointcut("execution(public * sports.center.com.util.UsernameUtil.generateUsername*(..))")
+    public void usernameAllocation() {}
+
+    @Around("repositories() || usernameAllocation()")
+    public Object measureRepositoryCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object target = joinPoint.getThis();
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        RepositoryMeters meters = metersByType
+                .computeIfAbsent(target.getClass(), type -> new ConcurrentHashMap<>())
+                .computeIfAbsent(method, key -> registerMeters(repositoryName(target, key), key.getName()));
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Object result = joinPoint.proceed();
+            failed = false;
+            long rows = rowCount(result);
+            if (rows >= 0) {
+                meters.rows().record(rows);
+            }
+            return result;
+        } finally {
+            long duration = System.nanoTime() - start;
+            (failed ? meters.failure() : meters.success()).record(duration, TimeUnit.NANOSECONDS);
+            if (duration > slowThresholdNanos) {
+                log.warn("Slow repository call {} took {} ms, parameters: {}", meters.name(),
+                        TimeUnit.NANOSECONDS.toMillis(duration), parameterShapes(joinPoint.getArgs()));
+            }
+        }
+    }
+
+    private RepositoryMeters registerMeters(String repository, String method) {
+        return new RepositoryMeters(repository + "." + method,
+                timer(repository, method, "success"),
+                timer(repository, method, "error"),
+                DistributionSummary.builder(ROWS_NAME)
+                        .description("Rows returned by a repository method")
+                        .tag("repository", repository)
+                        .tag("method", method)
+                        .serviceLevelObjectives(1, 10, 100, 1000, 10000)
+                        .register(meterRegistry));
+    }
+
+    private Timer timer(String repository, String method, String outcome) {
+        return Timer.builder(TIMER_NAME)
+                .description("Repository method execution time")
+                .tag("repository", repository)
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .serviceLevelObjectives(serviceLevelObjectives)
+                .register(meterRegistry);
+    }
+
+    private String repositoryName(Object target, Method method) {
+        if (target instanceof Repository<?, ?>) {
+            for (Class<?> type : ClassUtils.getAllInterfacesForClassAsSet(target.getClass())) {
+                if (type.getPackageName().equals(REPOSITORY_PACKAGE)) {
+                    return type.getSimpleName();
+                }
+            }
+        }
+        return ClassUtils.getUserClass(method.getDeclaringClass()).getSimpleName();
+    }
+
+    private long rowCount(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof TrainingPageDto page) {
+            return page.getTrainings().size();
+        }
+        if (result instanceof Number || result instanceof Boolean || result instanceof CharSequence
+                || result instanceof BaseStream<?, ?>) {
+            return -1;
+        }
+        return 1;
+    }
+
+    private String parameterShapes(Object[] args) {
+        StringJoiner shapes = new StringJoiner(", ", "[", "]");
+        for (Object arg : args) {
+            if (arg == null) {
+                shapes.add("null");
+            } else if (arg instanceof CharSequence text) {
+                shapes.add("String(" + text.length() + ")");
+            } else if (arg instanceof Collection<?> collection) {
+                shapes.add(arg.getClass().getSimpleName() + "(" + collection.size() + ")");
+            } else {
+                shapes.add(arg.getClass().getSimpleName());
+            }
+        }
+        return shapes.toString();
+    }
+
+    private record RepositoryMeters(String name, Timer success, Timer failure, DistributionSummary rows) {
+    }
+}
@@ -1,28 +1,50 @@
 package sports.center.com.metrics;
 
-import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
-import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.method.annotation.ExceptionHandlerMethodResolver;
+import sports.center.com.exception.GlobalExceptionHandler;
 
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
-@Slf4j
+/**
+ * Times every controller method with a timer tagged by endpoint and outcome. The timers of a handler method are
+ * registered on its first call and cached per Method, so the hot path is a map lookup and a record call. Timers
+ * publish SLO buckets, which Prometheus exposes as http_endpoint_requests_seconds_bucket{le=...}. A thrown
+ * exception is tagged with the status series of the GlobalExceptionHandler method that will answer it, so a
+ * TraineeNotFoundException counts as CLIENT_ERROR; EXCEPTION is left for throwables without a declared status.
+ */
 @Aspect
 @Component
 public class RequestMetricsAspect {
+    public static final String TIMER_NAME = "http_endpoint_requests";
 
-    private final Counter requestCounter;
-    private final Timer responseTimer;
+    private final MeterRegistry meterRegistry;
+    private final Duration[] serviceLevelObjectives;
+    private final Map<Method, Timer[]> timersByMethod = new ConcurrentHashMap<>();
+    private final ExceptionHandlerMethodResolver exceptionHandlers =
+            new ExceptionHandlerMethodResolver(GlobalExceptionHandler.class);
 
-    public RequestMetricsAspect(MeterRegistry meterRegistry) {
-        this.requestCounter = meterRegistry.counter("http_requests_total", "type", "all");
-        this.responseTimer = meterRegistry.timer("http_response_time", "type", "all");
+    public RequestMetricsAspect(MeterRegistry meterRegistry,
+                                @Value("${metrics.endpoint.slo:25ms,50ms,100ms,250ms,500ms,1s,2500ms}")
+                                Duration[] serviceLevelObjectives) {
+        this.meterRegistry = meterRegistry;
+        this.serviceLevelObjectives = serviceLevelObjectives;
     }
 
     @Pointcut("within(@org.springframework.web.bind.annotation.RestController *)")
@@ -30,16 +52,61 @@ public class RequestMetricsAspect {
 
     @Around("allControllers()")
     public Object measureExecutionTimeAndCountRequests(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer[] timers = timersByMethod.computeIfAbsent(((MethodSignature) joinPoint.getSignature()).getMethod(),
+                this::registerTimers);
         long start = System.nanoTime();
-        Object result = joinPoint.proceed();
-        long duration = System.nanoTime() - start;
+        Outcome outcome = Outcome.EXCEPTION;
+        try {
+            Object result = joinPoint.proceed();
+            outcome = Outcome.of(result);
+            return result;
+        } catch (Throwable ex) {
+            outcome = outcomeOf(ex);
+            throw ex;
+        } finally {
+            timers[outcome.ordinal()].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Outcome outcomeOf(Throwable ex) {
+        Method handler = ex instanceof Exception exception ? exceptionHandlers.resolveMethod(exception) : null;
+        ResponseStatus status = handler == null ? null : AnnotatedElementUtils.findMergedAnnotation(handler, ResponseStatus.class);
+        return status == null ? Outcome.EXCEPTION : Outcome.of(status.code().value());
+    }
+
+    private Timer[] registerTimers(Method method) {
+        String endpoint = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        Outcome[] outcomes = Outcome.values();
+        Timer[] timers = new Timer[outcomes.length];
+        for (Outcome outcome : outcomes) {
+            timers[outcome.ordinal()] = Timer.builder(TIMER_NAME)
+                    .description("Controller method execution time")
+                    .tag("endpoint", endpoint)
+                    .tag("outcome", outcome.name())
+                    .serviceLevelObjectives(serviceLevelObjectives)
+                    .register(meterRegistry);
+        }
+        return timers;
+    }
 
-        requestCounter.increment();
-        responseTimer.record(duration, TimeUnit.NANOSECONDS);
+    enum Outcome {
+        SUCCESS, REDIRECTION, CLIENT_ERROR, SERVER_ERROR, EXCEPTION;
 
-        log.info("Request counted: {} total", requestCounter.count());
-        log.info("Response time recorded: {} ms", duration / 1_000_000.0);
+        static Outcome of(Object result) {
+            return result instanceof ResponseEntity<?> response ? of(response.getStatusCode().value()) : SUCCESS;
+        }
 
-        return result;
+        static Outcome of(int statusCode) {
+            HttpStatus.Series series = HttpStatus.Series.resolve(statusCode);
+            if (series == null) {
+                return SUCCESS;
+            }
+            return switch (series) {
+                case REDIRECTION -> REDIRECTION;
+                case CLIENT_ERROR -> CLIENT_ERROR;
+                case SERVER_ERROR -> SERVER_ERROR;
+                default -> SUCCESS;
+            };
+        }
     }
 }
@@ -10,18 +10,22 @@ import java.util.Date;
 import java.util.List;
 
 @Entity
+@NamedEntityGraph(name = Trainee.WITH_TRAINERS_GRAPH, attributeNodes = @NamedAttributeNode("trainers"))
+@DiscriminatorValue("TRAINEE")
 @Table(name = "trainees")
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class Trainee extends User {
+    public static final String WITH_TRAINERS_GRAPH = "Trainee.withTrainers";
+
     @Column
     private Date dateOfBirth;
     @Column
     private String address;
 
-    @ManyToMany
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "trainee_trainer",
             joinColumns = @JoinColumn(name = "trainee_id"),
@@ -29,6 +33,6 @@ public class Trainee extends User {
     )
     private List<Trainer> trainers;
 
-    @OneToMany(mappedBy = "trainee", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OneToMany(mappedBy = "trainee", fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Training> trainings;
 }
\ No newline at end of file
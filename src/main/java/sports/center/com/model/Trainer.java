@@ -9,20 +9,24 @@ import lombok.Setter;
 import java.util.List;
 
 @Entity
+@NamedEntityGraph(name = Trainer.WITH_TRAINEES_GRAPH, attributeNodes = @NamedAttributeNode("trainees"))
+@DiscriminatorValue("TRAINER")
 @Table(name = "trainers")
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class Trainer extends User {
-    @ManyToOne
+    public static final String WITH_TRAINEES_GRAPH = "Trainer.withTrainees";
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "specialization_id", nullable = false)
     private TrainingType specialization;
 
-    @ManyToMany(mappedBy = "trainers")
+    @ManyToMany(mappedBy = "trainers", fetch = FetchType.LAZY)
     private List<Trainee> trainees;
 
-    @OneToMany(mappedBy = "trainer", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OneToMany(mappedBy = "trainer", fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Training> trainings;
 
     public Trainer(String firstName, String lastName, String username, String password, Boolean isActive, TrainingType specialization) {
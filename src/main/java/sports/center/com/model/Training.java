@@ -10,25 +10,33 @@ import java.util.Date;
 
 @Entity
 @Table(name = "trainings")
+@NamedEntityGraph(name = Training.ROW_GRAPH, attributeNodes = {
+        @NamedAttributeNode("trainee"),
+        @NamedAttributeNode("trainer"),
+        @NamedAttributeNode("trainingType")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class Training {
+    public static final String ROW_GRAPH = "Training.row";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "training_seq")
+    @SequenceGenerator(name = "training_seq", sequenceName = "training_seq", allocationSize = 50)
     @Column(name = "training_id")
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "trainee_id", nullable = false)
     private Trainee trainee;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "trainer_id", nullable = false)
     private Trainer trainer;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "training_type_id", nullable = false)
     private TrainingType trainingType;
 
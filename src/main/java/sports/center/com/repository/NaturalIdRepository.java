@@ -0,0 +1,16 @@
+package sports.center.com.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.repository.NoRepositoryBean;
+
+import java.util.Optional;
+
+/**
+ * Repository of an entity with a simple {@code @NaturalId}. Loads go through Hibernate's natural-id resolution,
+ * so an id already known to the session or to the natural-id cache region is resolved without any SQL.
+ */
+@NoRepositoryBean
+public interface NaturalIdRepository<T, ID> extends JpaRepository<T, ID> {
+
+    Optional<T> findBySimpleNaturalId(Object naturalId);
+}
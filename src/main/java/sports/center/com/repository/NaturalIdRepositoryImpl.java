@@ -0,0 +1,32 @@
+package sports.center.com.repository;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Base class of every repository (see JpaRepositoriesConfig). Natural ids of a JOINED hierarchy are resolved
+ * against the root table, so the loaded entity is checked against the repository's own subtype.
+ */
+@Transactional(readOnly = true)
+public class NaturalIdRepositoryImpl<T, ID> extends SimpleJpaRepository<T, ID> implements NaturalIdRepository<T, ID> {
+    private final EntityManager entityManager;
+
+    public NaturalIdRepositoryImpl(JpaEntityInformation<T, ?> entityInformation, EntityManager entityManager) {
+        super(entityInformation, entityManager);
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Optional<T> findBySimpleNaturalId(Object naturalId) {
+        Class<T> domainClass = getDomainClass();
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(domainClass)
+                .loadOptional(naturalId)
+                .filter(domainClass::isInstance);
+    }
+}
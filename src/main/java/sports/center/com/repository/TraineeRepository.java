@@ -1,14 +1,46 @@
 package sports.center.com.repository;
 
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import sports.center.com.model.Trainee;
+import sports.center.com.repository.projection.ProfileVersionView;
+import sports.center.com.repository.projection.TraineeProfileView;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TraineeRepository extends JpaRepository<Trainee, Long> {
-    Optional<Trainee> findByUsername(String username);
+public interface TraineeRepository extends NaturalIdRepository<Trainee, Long> {
+    /**
+     * Resolved through the username natural id, see {@link NaturalIdRepository}.
+     */
+    default Optional<Trainee> findByUsername(String username) {
+        return findBySimpleNaturalId(username);
+    }
+
+    @EntityGraph(Trainee.WITH_TRAINERS_GRAPH)
+    Optional<Trainee> findWithTrainersByUsername(String username);
+
+    @Query("""
+                SELECT t.firstName AS firstName, t.lastName AS lastName, t.dateOfBirth AS dateOfBirth,
+                       t.address AS address, t.isActive AS isActive,
+                       tr.username AS trainerUsername, tr.firstName AS trainerFirstName,
+                       tr.lastName AS trainerLastName, tr.specialization.id AS trainerSpecializationId
+                FROM Trainee t
+                LEFT JOIN t.trainers tr
+                WHERE t.username = :username
+            """)
+    List<TraineeProfileView> findProfileByUsername(@Param("username") String username);
+
+    @Query("""
+                SELECT t.id AS id, t.version AS version, tr.id AS linkedId, tr.version AS linkedVersion
+                FROM Trainee t
+                LEFT JOIN t.trainers tr
+                WHERE t.username = :username
+            """)
+    List<ProfileVersionView> findProfileVersionByUsername(@Param("username") String username);
 
     long countByIsActiveTrue();
 }
\ No newline at end of file
@@ -1,17 +1,45 @@
 package sports.center.com.repository;
 
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import sports.center.com.model.Trainer;
+import sports.center.com.repository.projection.ProfileVersionView;
+import sports.center.com.repository.projection.TrainerProfileView;
 
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TrainerRepository extends JpaRepository<Trainer, Long> {
-    Optional<Trainer> findByUsername(String username);
+public interface TrainerRepository extends NaturalIdRepository<Trainer, Long> {
+    /**
+     * Resolved through the username natural id, see {@link NaturalIdRepository}.
+     */
+    default Optional<Trainer> findByUsername(String username) {
+        return findBySimpleNaturalId(username);
+    }
+
+    @EntityGraph(Trainer.WITH_TRAINEES_GRAPH)
+    Optional<Trainer> findWithTraineesByUsername(String username);
+
+    @Query("""
+                SELECT t.firstName AS firstName, t.lastName AS lastName, t.specialization.id AS specializationId,
+                       t.isActive AS isActive,
+                       tr.username AS traineeUsername, tr.firstName AS traineeFirstName, tr.lastName AS traineeLastName
+                FROM Trainer t
+                LEFT JOIN t.trainees tr
+                WHERE t.username = :username
+            """)
+    List<TrainerProfileView> findProfileByUsername(@Param("username") String username);
+
+    @Query("""
+                SELECT t.id AS id, t.version AS version, tr.id AS linkedId, tr.version AS linkedVersion
+                FROM Trainer t
+                LEFT JOIN t.trainees tr
+                WHERE t.username = :username
+            """)
+    List<ProfileVersionView> findProfileVersionByUsername(@Param("username") String username);
 
     @Query("SELECT t FROM Trainer t JOIN t.trainees tr WHERE tr.username = :traineeUsername")
     List<Trainer> findTrainersByTraineeUsername(@Param("traineeUsername") String traineeUsername);
@@ -27,8 +55,9 @@ public interface TrainerRepository extends JpaRepository<Trainer, Long> {
     List<Trainer> findUnassignedTrainers(@Param("traineeUsername") String traineeUsername);
 
     @Query("""
-                SELECT t FROM Trainer t 
-                WHERE t.isActive = true 
+                SELECT t FROM Trainer t
+                JOIN FETCH t.specialization
+                WHERE t.isActive = true
                 AND t.id NOT IN (
                     SELECT tr.trainer.id FROM Training tr WHERE tr.trainee.username = :traineeUsername
                 )
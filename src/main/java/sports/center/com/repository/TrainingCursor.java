@@ -0,0 +1,29 @@
+package sports.center.com.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Keyset position in a training history ordered by training date and id, both descending.
+ * Clients only see the opaque encoded form.
+ */
+public record TrainingCursor(Date trainingDate, long id) {
+    private static final char SEPARATOR = ':';
+
+    public String encode() {
+        String value = trainingDate.getTime() + String.valueOf(SEPARATOR) + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TrainingCursor decode(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.indexOf(SEPARATOR);
+            return new TrainingCursor(new Date(Long.parseLong(value.substring(0, separator))),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -1,9 +1,15 @@
 package sports.center.com.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import sports.center.com.model.Training;
 
+import java.util.Optional;
+
 @Repository
 public interface TrainingRepository extends JpaRepository<Training, Long>, TrainingRepositoryCustom {
+    @Override
+    @EntityGraph(Training.ROW_GRAPH)
+    Optional<Training> findById(Long id);
 }
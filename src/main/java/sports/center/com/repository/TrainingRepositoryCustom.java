@@ -1,14 +1,29 @@
 package sports.center.com.repository;
 
-import sports.center.com.model.Training;
+import sports.center.com.dto.training.TrainingPageDto;
+import sports.center.com.dto.training.TrainingResponseDto;
 
 import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface TrainingRepositoryCustom {
-    List<Training> findTrainingsByTraineeCriteria(
+    List<TrainingResponseDto> findTrainingsByTraineeCriteria(
             String traineeUsername, Date fromDate, Date toDate, String trainerName, String trainingType);
 
-    List<Training> findTrainingsByTrainerCriteria(
+    List<TrainingResponseDto> findTrainingsByTrainerCriteria(
             String trainerUsername, Date fromDate, Date toDate, String traineeName);
-}
\ No newline at end of file
+
+    TrainingPageDto findTrainingsByTraineeCriteria(String traineeUsername, Date fromDate, Date toDate,
+                                                   String trainerName, String trainingType,
+                                                   TrainingCursor after, int limit);
+
+    TrainingPageDto findTrainingsByTrainerCriteria(String trainerUsername, Date fromDate, Date toDate,
+                                                   String traineeName, TrainingCursor after, int limit);
+
+    Stream<TrainingResponseDto> streamTrainingsByTraineeCriteria(
+            String traineeUsername, Date fromDate, Date toDate, String trainerName, String trainingType);
+
+    Stream<TrainingResponseDto> streamTrainingsByTrainerCriteria(
+            String trainerUsername, Date fromDate, Date toDate, String traineeName);
+}
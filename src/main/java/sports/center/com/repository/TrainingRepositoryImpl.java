@@ -2,30 +2,104 @@ package sports.center.com.repository;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
-import jakarta.persistence.criteria.CriteriaBuilder;
-import jakarta.persistence.criteria.CriteriaQuery;
-import jakarta.persistence.criteria.Predicate;
-import jakarta.persistence.criteria.Root;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.*;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.stereotype.Repository;
+import sports.center.com.dto.training.TrainingPageDto;
+import sports.center.com.dto.training.TrainingResponseDto;
 import sports.center.com.model.Training;
 
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
+/**
+ * History searches select only the columns of {@link TrainingResponseDto}, so each search is a single statement
+ * and no Trainee, Trainer or TrainingType entity is loaded. Results are ordered by training date and id, newest
+ * first; paged searches continue after a {@link TrainingCursor} instead of using an offset. Streamed searches
+ * scroll forward-only over the result set and have to be consumed inside a transaction.
+ */
 @Repository
 public class TrainingRepositoryImpl implements TrainingRepositoryCustom {
+    private static final String TRAINING_ID = "trainingId";
+    private static final String TRAINEE_USERNAME = "traineeUsername";
+    private static final String TRAINER_USERNAME = "trainerUsername";
+    private static final String TRAINING_NAME = "trainingName";
+    private static final String TRAINING_DATE = "trainingDate";
+    private static final String TRAINING_DURATION = "trainingDuration";
+    private static final String TRAINING_TYPE_NAME = "trainingTypeName";
+    private static final int STREAM_FETCH_SIZE = 500;
+
     @PersistenceContext
     private EntityManager entityManager;
 
     @Override
-    public List<Training> findTrainingsByTraineeCriteria(String traineeUsername, Date fromDate, Date toDate, String trainerName, String trainingType) {
+    public List<TrainingResponseDto> findTrainingsByTraineeCriteria(String traineeUsername, Date fromDate, Date toDate, String trainerName, String trainingType) {
+        return entityManager.createQuery(traineeQuery(traineeUsername, fromDate, toDate, trainerName, trainingType, null))
+                .getResultList().stream()
+                .map(this::toTraineeResponse)
+                .toList();
+    }
+
+    @Override
+    public List<TrainingResponseDto> findTrainingsByTrainerCriteria(String trainerUsername, Date fromDate, Date toDate, String traineeName) {
+        return entityManager.createQuery(trainerQuery(trainerUsername, fromDate, toDate, traineeName, null))
+                .getResultList().stream()
+                .map(this::toTrainerResponse)
+                .toList();
+    }
+
+    @Override
+    public TrainingPageDto findTrainingsByTraineeCriteria(String traineeUsername, Date fromDate, Date toDate,
+                                                          String trainerName, String trainingType,
+                                                          TrainingCursor after, int limit) {
+        List<Tuple> rows = entityManager.createQuery(traineeQuery(traineeUsername, fromDate, toDate, trainerName, trainingType, after))
+                .setMaxResults(limit + 1)
+                .getResultList();
+        return toPage(rows, limit, this::toTraineeResponse);
+    }
+
+    @Override
+    public TrainingPageDto findTrainingsByTrainerCriteria(String trainerUsername, Date fromDate, Date toDate,
+                                                          String traineeName, TrainingCursor after, int limit) {
+        List<Tuple> rows = entityManager.createQuery(trainerQuery(trainerUsername, fromDate, toDate, traineeName, after))
+                .setMaxResults(limit + 1)
+                .getResultList();
+        return toPage(rows, limit, this::toTrainerResponse);
+    }
+
+    @Override
+    public Stream<TrainingResponseDto> streamTrainingsByTraineeCriteria(String traineeUsername, Date fromDate, Date toDate,
+                                                                        String trainerName, String trainingType) {
+        return entityManager.createQuery(traineeQuery(traineeUsername, fromDate, toDate, trainerName, trainingType, null))
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .getResultStream()
+                .map(this::toTraineeResponse);
+    }
+
+    @Override
+    public Stream<TrainingResponseDto> streamTrainingsByTrainerCriteria(String trainerUsername, Date fromDate, Date toDate,
+                                                                        String traineeName) {
+        return entityManager.createQuery(trainerQuery(trainerUsername, fromDate, toDate, traineeName, null))
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .getResultStream()
+                .map(this::toTrainerResponse);
+    }
+
+    private CriteriaQuery<Tuple> traineeQuery(String traineeUsername, Date fromDate, Date toDate, String trainerName,
+                                              String trainingType, TrainingCursor after) {
         CriteriaBuilder cb = entityManager.getCriteriaBuilder();
-        CriteriaQuery<Training> query = cb.createQuery(Training.class);
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
         Root<Training> training = query.from(Training.class);
+        Join<Object, Object> trainee = training.join("trainee");
+        Join<Object, Object> trainer = training.join("trainer");
+        Join<Object, Object> type = training.join("trainingType");
 
         List<Predicate> predicates = new ArrayList<>();
-        predicates.add(cb.equal(training.get("trainee").get("username"), traineeUsername));
+        predicates.add(cb.equal(trainee.get("username"), traineeUsername));
 
         if (fromDate != null) {
             predicates.add(cb.greaterThanOrEqualTo(training.get("trainingDate"), fromDate));
@@ -34,24 +108,38 @@ public class TrainingRepositoryImpl implements TrainingRepositoryCustom {
             predicates.add(cb.lessThanOrEqualTo(training.get("trainingDate"), toDate));
         }
         if (trainerName != null && !trainerName.isEmpty()) {
-            predicates.add(cb.equal(training.get("trainer").get("username"), trainerName));
+            predicates.add(cb.equal(trainer.get("username"), trainerName));
         }
         if (trainingType != null && !trainingType.isEmpty()) {
-            predicates.add(cb.equal(training.get("trainingType").get("trainingTypeName"), trainingType));
+            predicates.add(cb.equal(type.get("trainingTypeName"), trainingType));
+        }
+        if (after != null) {
+            predicates.add(after(cb, training, after));
         }
 
-        query.select(training).where(predicates.toArray(new Predicate[0]));
-        return entityManager.createQuery(query).getResultList();
+        query.multiselect(
+                        training.get("id").alias(TRAINING_ID),
+                        trainer.get("username").alias(TRAINER_USERNAME),
+                        training.get("trainingName").alias(TRAINING_NAME),
+                        training.get("trainingDate").alias(TRAINING_DATE),
+                        training.get("trainingDuration").alias(TRAINING_DURATION),
+                        type.get("trainingTypeName").alias(TRAINING_TYPE_NAME))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(training.get("trainingDate")), cb.desc(training.get("id")));
+        return query;
     }
 
-    @Override
-    public List<Training> findTrainingsByTrainerCriteria(String trainerUsername, Date fromDate, Date toDate, String traineeName) {
+    private CriteriaQuery<Tuple> trainerQuery(String trainerUsername, Date fromDate, Date toDate, String traineeName,
+                                              TrainingCursor after) {
         CriteriaBuilder cb = entityManager.getCriteriaBuilder();
-        CriteriaQuery<Training> query = cb.createQuery(Training.class);
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
         Root<Training> training = query.from(Training.class);
+        Join<Object, Object> trainee = training.join("trainee");
+        Join<Object, Object> trainer = training.join("trainer");
+        Join<Object, Object> type = training.join("trainingType");
 
         List<Predicate> predicates = new ArrayList<>();
-        predicates.add(cb.equal(training.get("trainer").get("username"), trainerUsername));
+        predicates.add(cb.equal(trainer.get("username"), trainerUsername));
 
         if (fromDate != null) {
             predicates.add(cb.greaterThanOrEqualTo(training.get("trainingDate"), fromDate));
@@ -60,10 +148,61 @@ public class TrainingRepositoryImpl implements TrainingRepositoryCustom {
             predicates.add(cb.lessThanOrEqualTo(training.get("trainingDate"), toDate));
         }
         if (traineeName != null && !traineeName.isEmpty()) {
-            predicates.add(cb.equal(training.get("trainee").get("username"), traineeName));
+            predicates.add(cb.equal(trainee.get("username"), traineeName));
+        }
+        if (after != null) {
+            predicates.add(after(cb, training, after));
+        }
+
+        query.multiselect(
+                        training.get("id").alias(TRAINING_ID),
+                        trainee.get("username").alias(TRAINEE_USERNAME),
+                        training.get("trainingName").alias(TRAINING_NAME),
+                        training.get("trainingDate").alias(TRAINING_DATE),
+                        training.get("trainingDuration").alias(TRAINING_DURATION),
+                        type.get("trainingTypeName").alias(TRAINING_TYPE_NAME))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(training.get("trainingDate")), cb.desc(training.get("id")));
+        return query;
+    }
+
+    private Predicate after(CriteriaBuilder cb, Root<Training> training, TrainingCursor cursor) {
+        Path<Date> trainingDate = training.get("trainingDate");
+        Path<Long> id = training.get("id");
+        return cb.or(
+                cb.lessThan(trainingDate, cursor.trainingDate()),
+                cb.and(cb.equal(trainingDate, cursor.trainingDate()), cb.lessThan(id, cursor.id())));
+    }
+
+    private TrainingPageDto toPage(List<Tuple> rows, int limit, Function<Tuple, TrainingResponseDto> mapper) {
+        List<Tuple> page = rows.size() > limit ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            Tuple last = page.get(page.size() - 1);
+            nextCursor = new TrainingCursor(last.get(TRAINING_DATE, Date.class), last.get(TRAINING_ID, Long.class)).encode();
         }
+        return TrainingPageDto.builder()
+                .trainings(page.stream().map(mapper).toList())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private TrainingResponseDto toTraineeResponse(Tuple row) {
+        return toResponse(row, null, row.get(TRAINER_USERNAME, String.class));
+    }
+
+    private TrainingResponseDto toTrainerResponse(Tuple row) {
+        return toResponse(row, row.get(TRAINEE_USERNAME, String.class), null);
+    }
 
-        query.select(training).where(predicates.toArray(new Predicate[0]));
-        return entityManager.createQuery(query).getResultList();
+    private TrainingResponseDto toResponse(Tuple row, String traineeUsername, String trainerUsername) {
+        return TrainingResponseDto.builder()
+                .traineeUsername(traineeUsername)
+                .trainerUsername(trainerUsername)
+                .trainingName(row.get(TRAINING_NAME, String.class))
+                .trainingDate(row.get(TRAINING_DATE, Date.class))
+                .trainingDuration(row.get(TRAINING_DURATION, Integer.class))
+                .trainingTypeName(row.get(TRAINING_TYPE_NAME, String.class))
+                .build();
     }
-}
\ No newline at end of file
+}
@@ -1,10 +1,14 @@
 package sports.center.com.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import sports.center.com.model.TrainingType;
 
 import java.util.Optional;
 
 public interface TrainingTypeRepository extends JpaRepository<TrainingType, Long> {
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<TrainingType> findByTrainingTypeName(String trainingTypeName);
 }
@@ -0,0 +1,30 @@
+package sports.center.com.repository;
+
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import sports.center.com.model.User;
+import sports.center.com.repository.projection.UserCredentialsView;
+
+import java.util.Optional;
+
+@Repository
+public interface UserRepository extends NaturalIdRepository<User, Long> {
+
+    /**
+     * Resolved through the username natural id, see {@link NaturalIdRepository}.
+     */
+    default Optional<User> findByUsername(String username) {
+        return findBySimpleNaturalId(username);
+    }
+
+    /**
+     * Single index-only lookup on idx_users_username_credentials, without joining the subtype tables.
+     */
+    @Query(value = """
+                SELECT u.user_id AS id, u.password AS password, u.user_type AS userType
+                FROM users u
+                WHERE u.username = :username
+            """, nativeQuery = true)
+    Optional<UserCredentialsView> findCredentialsByUsername(@Param("username") String username);
+}
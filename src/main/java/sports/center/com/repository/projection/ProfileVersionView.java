@@ -0,0 +1,47 @@
+package sports.center.com.repository.projection;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * One row per linked user: the profile owner's id and version and the id and version of the linked user (both null
+ * when nothing is linked). The ETag hashes the owner's id and version with the sorted (id, version) pairs, so it
+ * differs between accounts sharing the profile URL and changes when the profile, the set of linked users or any
+ * linked user changes. Building it still runs this query, which is much
+ * cheaper than loading the profile but not free.
+ */
+public interface ProfileVersionView {
+    Long getId();
+
+    Long getVersion();
+
+    Long getLinkedId();
+
+    Long getLinkedVersion();
+
+    static Optional<String> toETag(String prefix, List<ProfileVersionView> rows) {
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        Map<Long, Long> linkedVersions = new TreeMap<>();
+        for (ProfileVersionView row : rows) {
+            if (row.getLinkedId() != null) {
+                linkedVersions.put(row.getLinkedId(), row.getLinkedVersion());
+            }
+        }
+        ProfileVersionView owner = rows.get(0);
+        String stamp = owner.getId() + ":" + owner.getVersion() + ":" + linkedVersions;
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(stamp.getBytes(StandardCharsets.UTF_8));
+            return Optional.of(prefix + "-" + HexFormat.of().formatHex(digest, 0, 8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package sports.center.com.repository.projection;
+
+import java.util.Date;
+
+/**
+ * One row per assigned trainer; the trainer columns are null when the trainee has no trainers.
+ */
+public interface TraineeProfileView {
+    String getFirstName();
+
+    String getLastName();
+
+    Date getDateOfBirth();
+
+    String getAddress();
+
+    Boolean getIsActive();
+
+    String getTrainerUsername();
+
+    String getTrainerFirstName();
+
+    String getTrainerLastName();
+
+    Long getTrainerSpecializationId();
+}
@@ -0,0 +1,20 @@
+package sports.center.com.repository.projection;
+
+/**
+ * One row per assigned trainee; the trainee columns are null when the trainer has no trainees.
+ */
+public interface TrainerProfileView {
+    String getFirstName();
+
+    String getLastName();
+
+    Long getSpecializationId();
+
+    Boolean getIsActive();
+
+    String getTraineeUsername();
+
+    String getTraineeFirstName();
+
+    String getTraineeLastName();
+}
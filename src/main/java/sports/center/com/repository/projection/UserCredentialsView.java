@@ -0,0 +1,9 @@
+package sports.center.com.repository.projection;
+
+public interface UserCredentialsView {
+    Long getId();
+
+    String getPassword();
+
+    String getUserType();
+}
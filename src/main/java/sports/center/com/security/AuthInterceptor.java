@@ -16,7 +16,8 @@ public class AuthInterceptor implements HandlerInterceptor {
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
         String requestURI = request.getRequestURI();
 
-        if ((requestURI.equals("/trainee") || requestURI.equals("/trainer"))
+        if ((requestURI.equals("/trainee") || requestURI.equals("/trainer")
+                || requestURI.equals("/trainee/batch") || requestURI.equals("/trainer/batch"))
                 && request.getMethod().equalsIgnoreCase("POST")) {
             return true;
         }
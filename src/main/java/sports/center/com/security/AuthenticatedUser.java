@@ -0,0 +1,8 @@
+package sports.center.com.security;
+
+/**
+ * Principal resolved once per request by {@link BasicAuthFilter} and stored as a request attribute.
+ */
+public record AuthenticatedUser(Long id, String username, UserRole role) {
+    public static final String REQUEST_ATTRIBUTE = AuthenticatedUser.class.getName();
+}
@@ -0,0 +1,35 @@
+package sports.center.com.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import sports.center.com.exception.exceptions.UnauthorizedException;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuthenticationContext {
+    private final HttpServletRequest request;
+
+    public AuthenticatedUser getCurrentUser() {
+        if (request.getAttribute(AuthenticatedUser.REQUEST_ATTRIBUTE) instanceof AuthenticatedUser user) {
+            return user;
+        }
+        log.warn("Unauthorized request: no authenticated user bound to {}", request.getRequestURI());
+        throw new UnauthorizedException("Unauthorized request");
+    }
+
+    public String getUsername() {
+        return getCurrentUser().username();
+    }
+
+    public String getUsername(UserRole role) {
+        AuthenticatedUser user = getCurrentUser();
+        if (user.role() != role) {
+            log.warn("Authenticated user {} is not a {}", user.username(), role);
+            throw new UnauthorizedException("Invalid username or password");
+        }
+        return user.username();
+    }
+}
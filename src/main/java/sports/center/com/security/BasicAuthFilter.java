@@ -8,8 +8,6 @@ import org.springframework.stereotype.Component;
 import sports.center.com.service.AuthService;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.util.Base64;
 
 @Component
 @RequiredArgsConstructor
@@ -24,12 +22,13 @@ public class BasicAuthFilter implements Filter {
 
         String requestURI = httpRequest.getRequestURI();
 
-        if ((requestURI.equals("/trainee") || requestURI.equals("/trainer"))
+        if ((requestURI.equals("/trainee") || requestURI.equals("/trainer")
+                || requestURI.equals("/trainee/batch") || requestURI.equals("/trainer/batch"))
                 && httpRequest.getMethod().equalsIgnoreCase("POST")) {
             chain.doFilter(request, response);
             return;
         }
-        
+
         if (httpRequest.getRequestURI().startsWith("/swagger-ui") || httpRequest.getRequestURI().startsWith("/v3/api-docs")
                 || httpRequest.getRequestURI().startsWith("/webjars/") || httpRequest.getRequestURI().equals("/actuator/health")
                 || httpRequest.getRequestURI().equals("/actuator/prometheus") || httpRequest.getRequestURI().equals("/health")) {
@@ -44,12 +43,7 @@ public class BasicAuthFilter implements Filter {
             return;
         }
 
-        String base64Credentials = authHeader.substring("Basic ".length());
-        String credentials = new String(Base64.getDecoder().decode(base64Credentials), StandardCharsets.UTF_8);
-        String[] values = credentials.split(":", 2);
-
-        if (values.length != 2 || (!authService.authenticateTrainee(values[0], values[1])
-                && !authService.authenticateTrainer(values[0], values[1]))) {
+        if (authService.resolvePrincipal(httpRequest).isEmpty()) {
             httpResponse.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid username or password");
             return;
         }
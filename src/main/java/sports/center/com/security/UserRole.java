@@ -0,0 +1,15 @@
+package sports.center.com.security;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+public enum UserRole {
+    TRAINEE,
+    TRAINER;
+
+    public static Optional<UserRole> fromDiscriminator(String userType) {
+        return Arrays.stream(values())
+                .filter(role -> role.name().equals(userType))
+                .findFirst();
+    }
+}
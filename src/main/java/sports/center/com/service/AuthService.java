@@ -1,11 +1,14 @@
 package sports.center.com.service;
 
 import jakarta.servlet.http.HttpServletRequest;
+import sports.center.com.security.AuthenticatedUser;
+
+import java.util.Optional;
 
 public interface AuthService {
-    boolean authenticateTrainee(String username, String password);
+    Optional<AuthenticatedUser> authenticate(String username, String password);
 
-    boolean authenticateTrainer(String username, String password);
+    Optional<AuthenticatedUser> resolvePrincipal(HttpServletRequest request);
 
     boolean authenticateRequest(HttpServletRequest request);
-}
\ No newline at end of file
+}
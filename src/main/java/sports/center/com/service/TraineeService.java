@@ -1,11 +1,19 @@
 package sports.center.com.service;
 
+import sports.center.com.dto.registration.BatchRegistrationResponseDto;
 import sports.center.com.dto.trainee.TraineeRequestDto;
 import sports.center.com.dto.trainee.TraineeResponseDto;
 
+import java.util.List;
+
 public interface TraineeService {
     TraineeResponseDto createTrainee(TraineeRequestDto traineeRequestDto);
 
+    /**
+     * Reports invalid items per index and saves the rest atomically, see {@link BatchRegistrationResponseDto}.
+     */
+    BatchRegistrationResponseDto createTrainees(List<TraineeRequestDto> traineeRequestDtos);
+
     TraineeResponseDto updateTraineeProfile(TraineeRequestDto request);
 
     boolean changeTraineeStatus();
@@ -14,5 +22,7 @@ public interface TraineeService {
 
     TraineeResponseDto getTraineeProfile();
 
+    String getTraineeProfileETag();
+
     boolean changeTraineePassword(String newPassword);
 }
\ No newline at end of file
@@ -1,13 +1,23 @@
 package sports.center.com.service;
 
+import sports.center.com.dto.registration.BatchRegistrationResponseDto;
 import sports.center.com.dto.trainer.TrainerRequestDto;
 import sports.center.com.dto.trainer.TrainerResponseDto;
 
+import java.util.List;
+
 public interface TrainerService {
     TrainerResponseDto createTrainer(TrainerRequestDto trainerRequestDto);
 
+    /**
+     * Reports invalid items per index and saves the rest atomically, see {@link BatchRegistrationResponseDto}.
+     */
+    BatchRegistrationResponseDto createTrainers(List<TrainerRequestDto> trainerRequestDtos);
+
     TrainerResponseDto getTrainerProfile();
 
+    String getTrainerProfileETag();
+
     boolean changeTrainerPassword(String newPassword);
 
     TrainerResponseDto updateTrainerProfile(TrainerRequestDto request);
@@ -1,10 +1,13 @@
 package sports.center.com.service;
 
 import sports.center.com.dto.trainer.TrainerResponseDto;
+import sports.center.com.dto.training.TrainingPageDto;
 import sports.center.com.dto.training.TrainingRequestDto;
 import sports.center.com.dto.training.TrainingResponseDto;
 import sports.center.com.dto.training.TrainingTypeResponseDto;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Date;
 import java.util.List;
 
@@ -15,9 +18,21 @@ public interface TrainingService {
 
     List<TrainingResponseDto> getTrainerTrainings(Date fromDate, Date toDate, String traineeName);
 
+    TrainingPageDto getTraineeTrainings(Date fromDate, Date toDate, String trainerName, String trainingType,
+                                        String cursor, int limit);
+
+    TrainingPageDto getTrainerTrainings(Date fromDate, Date toDate, String traineeName, String cursor, int limit);
+
+    void exportTraineeTrainings(Date fromDate, Date toDate, String trainerName, String trainingType, OutputStream out)
+            throws IOException;
+
+    void exportTrainerTrainings(Date fromDate, Date toDate, String traineeName, OutputStream out) throws IOException;
+
     List<TrainerResponseDto> updateTraineeTrainersList(List<String> trainerUsernames);
 
     List<TrainerResponseDto> getNotAssignedActiveTrainers();
 
     List<TrainingTypeResponseDto> getTrainingType();
+
+    String getTrainingTypesETag();
 }
\ No newline at end of file
@@ -1,78 +1,82 @@
 package sports.center.com.service.impl;
 
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.EntityManagerFactory;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import sports.center.com.cache.CredentialCache;
+import sports.center.com.repository.UserRepository;
+import sports.center.com.repository.projection.UserCredentialsView;
+import sports.center.com.security.AuthenticatedUser;
+import sports.center.com.security.UserRole;
 import sports.center.com.service.AuthService;
 
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.Base64;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AuthServiceImpl implements AuthService {
-    private final EntityManagerFactory entityManagerFactory;
-
-    private EntityManager getEntityManager() {
-        return entityManagerFactory.createEntityManager();
-    }
+    private final UserRepository userRepository;
+    private final CredentialCache credentialCache;
 
     @Override
-    public boolean authenticateTrainee(String username, String password) {
-        EntityManager em = getEntityManager();
-        try {
-            return em.createQuery(
-                            "SELECT COUNT(t) FROM Trainee t WHERE t.username = :username AND t.password = :password",
-                            Long.class
-                    )
-                    .setParameter("username", username)
-                    .setParameter("password", password)
-                    .getSingleResult() > 0;
-        } finally {
-            em.close();
+    public Optional<AuthenticatedUser> authenticate(String username, String password) {
+        Optional<AuthenticatedUser> cached = credentialCache.get(username, password);
+        if (cached.isPresent()) {
+            return cached;
         }
+
+        Optional<AuthenticatedUser> principal = userRepository.findCredentialsByUsername(username)
+                .filter(credentials -> passwordMatches(credentials, password))
+                .flatMap(credentials -> UserRole.fromDiscriminator(credentials.getUserType())
+                        .map(role -> new AuthenticatedUser(credentials.getId(), username, role)));
+        principal.ifPresent(user -> credentialCache.put(username, password, user));
+        return principal;
     }
 
     @Override
-    public boolean authenticateTrainer(String username, String password) {
-        EntityManager em = getEntityManager();
-        try {
-            return em.createQuery(
-                            "SELECT COUNT(t) FROM Trainer t WHERE t.username = :username AND t.password = :password",
-                            Long.class
-                    )
-                    .setParameter("username", username)
-                    .setParameter("password", password)
-                    .getSingleResult() > 0;
-        } finally {
-            em.close();
+    public Optional<AuthenticatedUser> resolvePrincipal(HttpServletRequest request) {
+        if (request.getAttribute(AuthenticatedUser.REQUEST_ATTRIBUTE) instanceof AuthenticatedUser user) {
+            return Optional.of(user);
         }
-    }
 
-    @Override
-    public boolean authenticateRequest(HttpServletRequest request) {
         String authHeader = request.getHeader("Authorization");
 
         if (authHeader == null || !authHeader.startsWith("Basic ")) {
-            return false;
+            return Optional.empty();
         }
 
-        String base64Credentials = authHeader.substring("Basic ".length());
-        String credentials = new String(Base64.getDecoder().decode(base64Credentials), StandardCharsets.UTF_8);
+        String credentials;
+        try {
+            String base64Credentials = authHeader.substring("Basic ".length());
+            credentials = new String(Base64.getDecoder().decode(base64Credentials), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            log.warn("Malformed Basic authentication header");
+            return Optional.empty();
+        }
         String[] values = credentials.split(":", 2);
 
         if (values.length != 2) {
-            return false;
+            return Optional.empty();
         }
 
-        String username = values[0];
-        String password = values[1];
+        Optional<AuthenticatedUser> principal = authenticate(values[0], values[1]);
+        principal.ifPresent(user -> request.setAttribute(AuthenticatedUser.REQUEST_ATTRIBUTE, user));
+        return principal;
+    }
 
-        return authenticateTrainee(username, password) || authenticateTrainer(username, password);
+    @Override
+    public boolean authenticateRequest(HttpServletRequest request) {
+        return resolvePrincipal(request).isPresent();
     }
 
-}
\ No newline at end of file
+    private boolean passwordMatches(UserCredentialsView credentials, String password) {
+        return credentials.getPassword() != null && MessageDigest.isEqual(
+                credentials.getPassword().getBytes(StandardCharsets.UTF_8),
+                password.getBytes(StandardCharsets.UTF_8));
+    }
+}
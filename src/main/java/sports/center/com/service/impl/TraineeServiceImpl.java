@@ -1,31 +1,31 @@
 package sports.center.com.service.impl;
 
-import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.slf4j.MDC;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import sports.center.com.cache.CredentialCache;
+import sports.center.com.dto.registration.BatchRegistrationResponseDto;
+import sports.center.com.dto.registration.RegistrationResultDto;
 import sports.center.com.dto.trainee.TraineeRequestDto;
 import sports.center.com.dto.trainee.TraineeResponseDto;
 import sports.center.com.dto.trainer.TrainerResponseDto;
 import sports.center.com.exception.exceptions.InvalidPasswordException;
 import sports.center.com.exception.exceptions.InvalidTraineeRequestException;
 import sports.center.com.exception.exceptions.TraineeNotFoundException;
-import sports.center.com.exception.exceptions.UnauthorizedException;
 import sports.center.com.model.Trainee;
 import sports.center.com.repository.TraineeRepository;
+import sports.center.com.repository.projection.ProfileVersionView;
+import sports.center.com.repository.projection.TraineeProfileView;
+import sports.center.com.security.AuthenticationContext;
+import sports.center.com.security.UserRole;
 import sports.center.com.service.TraineeService;
 import sports.center.com.util.PasswordUtil;
 import sports.center.com.util.UsernameUtil;
 
-import java.nio.charset.StandardCharsets;
-import java.util.Base64;
-import java.util.Objects;
-import java.util.Optional;
-import java.util.Set;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,16 +33,18 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Transactional
 public class TraineeServiceImpl implements TraineeService {
+    private static final int MAX_BATCH_SIZE = 1000;
+
     private final TraineeRepository traineeRepository;
     private final UsernameUtil usernameUtil;
     private final Validator validator;
-    private final HttpServletRequest request;
+    private final AuthenticationContext authenticationContext;
+    private final CredentialCache credentialCache;
 
     @Override
     public TraineeResponseDto createTrainee(TraineeRequestDto traineeRequestDto) {
-        String transactionId = MDC.get("transactionId");
-        log.info("Transaction [{}] - Received request to create trainee: {} {}",
-                transactionId, traineeRequestDto.getFirstName(), traineeRequestDto.getLastName());
+        log.info("Received request to create trainee: {} {}",
+                traineeRequestDto.getFirstName(), traineeRequestDto.getLastName());
 
         String username = usernameUtil.generateUsername(traineeRequestDto.getFirstName(), traineeRequestDto.getLastName());
 
@@ -58,7 +60,7 @@ public class TraineeServiceImpl implements TraineeService {
         trainee.setAddress(traineeRequestDto.getAddress());
 
         traineeRepository.save(trainee);
-        log.info("Transaction [{}] - Trainee created successfully: {}", transactionId, trainee.getUsername());
+        log.info("Trainee created successfully: {}", trainee.getUsername());
 
         return TraineeResponseDto.builder()
                 .username(username)
@@ -66,23 +68,91 @@ public class TraineeServiceImpl implements TraineeService {
                 .build();
     }
 
+    @Override
+    public BatchRegistrationResponseDto createTrainees(List<TraineeRequestDto> traineeRequestDtos) {
+        validateBatchSize(traineeRequestDtos);
+        log.info("Received request to create {} trainees", traineeRequestDtos.size());
+
+        RegistrationResultDto[] results = new RegistrationResultDto[traineeRequestDtos.size()];
+        // Sorted, so concurrent batches lock the username_sequences rows in the same order and cannot deadlock
+        Map<String, List<Integer>> indexesByBaseUsername = new TreeMap<>();
+
+        for (int i = 0; i < traineeRequestDtos.size(); i++) {
+            TraineeRequestDto request = traineeRequestDtos.get(i);
+            String error = findValidationError(request);
+            if (error != null) {
+                results[i] = RegistrationResultDto.builder().index(i).error(error).build();
+                continue;
+            }
+            indexesByBaseUsername
+                    .computeIfAbsent(usernameUtil.formatBaseUsername(request.getFirstName(), request.getLastName()),
+                            baseUsername -> new ArrayList<>())
+                    .add(i);
+        }
+
+        List<Trainee> trainees = new ArrayList<>();
+        for (List<Integer> indexes : indexesByBaseUsername.values()) {
+            TraineeRequestDto first = traineeRequestDtos.get(indexes.get(0));
+            List<String> usernames = usernameUtil.generateUsernames(first.getFirstName(), first.getLastName(), indexes.size());
+
+            for (int k = 0; k < indexes.size(); k++) {
+                int index = indexes.get(k);
+                TraineeRequestDto request = traineeRequestDtos.get(index);
+                String password = PasswordUtil.generatePassword();
+
+                Trainee trainee = new Trainee();
+                trainee.setFirstName(request.getFirstName());
+                trainee.setLastName(request.getLastName());
+                trainee.setUsername(usernames.get(k));
+                trainee.setPassword(password);
+                trainee.setIsActive(true);
+                trainee.setDateOfBirth(request.getDateOfBirth());
+                trainee.setAddress(request.getAddress());
+                trainees.add(trainee);
+
+                results[index] = RegistrationResultDto.builder()
+                        .index(index)
+                        .username(trainee.getUsername())
+                        .password(password)
+                        .build();
+            }
+        }
+
+        traineeRepository.saveAll(trainees);
+        log.info("Created {} of {} trainees", trainees.size(), results.length);
+
+        return BatchRegistrationResponseDto.builder()
+                .created(trainees.size())
+                .failed(results.length - trainees.size())
+                .results(Arrays.asList(results))
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public TraineeResponseDto getTraineeProfile() {
-        String transactionId = MDC.get("transactionId");
-        String username = getAuthenticatedUsername();
-        log.info("Transaction [{}] - Fetching trainee profile: {}", transactionId, username);
+        String username = authenticationContext.getUsername(UserRole.TRAINEE);
+        log.info("Fetching trainee profile: {}", username);
 
-        return traineeRepository.findByUsername(username)
-                .map(this::mapToResponseWithTrainers)
-                .orElseThrow(() -> {
-                    log.warn("Transaction [{}] - Trainee not found: {}", transactionId, username);
-                    return new TraineeNotFoundException(username);
-                });
+        List<TraineeProfileView> rows = traineeRepository.findProfileByUsername(username);
+        if (rows.isEmpty()) {
+            log.warn("Trainee not found: {}", username);
+            throw new TraineeNotFoundException(username);
+        }
+        return mapProfileToResponse(rows);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getTraineeProfileETag() {
+        String username = authenticationContext.getUsername(UserRole.TRAINEE);
+        return ProfileVersionView.toETag("trainee", traineeRepository.findProfileVersionByUsername(username))
+                .orElseThrow(() -> new TraineeNotFoundException(username));
     }
 
     public boolean changeTraineePassword(String newPassword) {
-        String transactionId = MDC.get("transactionId");
-        String username = getAuthenticatedUsername();
-        log.info("Transaction [{}] - Changing password for trainee: {}", transactionId, username);
+        String username = authenticationContext.getUsername(UserRole.TRAINEE);
+        log.info("Changing password for trainee: {}", username);
 
         validatePassword(newPassword);
 
@@ -90,20 +160,20 @@ public class TraineeServiceImpl implements TraineeService {
         trainee.setPassword(newPassword);
 
         traineeRepository.save(trainee);
-        log.info("Transaction [{}] - Password changed successfully for trainee: {}", transactionId, username);
+        credentialCache.invalidate(username);
+        log.info("Password changed successfully for trainee: {}", username);
 
         return true;
     }
 
     @Override
     public TraineeResponseDto updateTraineeProfile(TraineeRequestDto request) {
-        String transactionId = MDC.get("transactionId");
-        String username = getAuthenticatedUsername();
-        log.info("Transaction [{}] - Updating trainee profile: {}", transactionId, username);
+        String username = authenticationContext.getUsername(UserRole.TRAINEE);
+        log.info("Updating trainee profile: {}", username);
 
         validateRequest(request);
 
-        Trainee trainee = getTraineeOrThrow(username);
+        Trainee trainee = getTraineeWithTrainersOrThrow(username);
 
         Optional.ofNullable(request.getFirstName()).ifPresent(trainee::setFirstName);
         Optional.ofNullable(request.getLastName()).ifPresent(trainee::setLastName);
@@ -114,58 +184,47 @@ public class TraineeServiceImpl implements TraineeService {
             trainee.setIsActive(request.getIsActive());
         }
 
-        updateUsernameIfChanged(trainee, request);
-
         traineeRepository.save(trainee);
-        log.info("Transaction [{}] - Trainee profile updated: {}", transactionId, trainee.getUsername());
+        credentialCache.invalidate(username);
+        log.info("Trainee profile updated: {}", trainee.getUsername());
 
         return mapToResponseWithUsername(trainee);
     }
 
-    private void updateUsernameIfChanged(Trainee trainee, TraineeRequestDto request) {
-        if (request.getFirstName() != null && request.getLastName() != null &&
-                (!Objects.equals(trainee.getFirstName(), request.getFirstName()) ||
-                        !Objects.equals(trainee.getLastName(), request.getLastName()))) {
-
-            trainee.setUsername(usernameUtil.generateUsername(request.getFirstName(), request.getLastName()));
-        }
-    }
-
     @Override
     public boolean changeTraineeStatus() {
-        String transactionId = MDC.get("transactionId");
-        String username = getAuthenticatedUsername();
+        String username = authenticationContext.getUsername(UserRole.TRAINEE);
         Trainee trainee = getTraineeOrThrow(username);
 
         boolean newStatus = !trainee.getIsActive();
         trainee.setIsActive(newStatus);
         traineeRepository.save(trainee);
+        credentialCache.invalidate(username);
 
-        log.info("Transaction [{}] - Trainee status toggled for {}: new status = {}", transactionId, username, newStatus);
+        log.info("Trainee status toggled for {}: new status = {}", username, newStatus);
         return newStatus;
     }
 
     @Override
     public boolean deleteTrainee() {
-        String transactionId = MDC.get("transactionId");
-        String username = getAuthenticatedUsername();
-        log.info("Transaction [{}] - Deleting trainee: {}", transactionId, username);
+        String username = authenticationContext.getUsername(UserRole.TRAINEE);
+        log.info("Deleting trainee: {}", username);
 
         Trainee trainee = getTraineeOrThrow(username);
         traineeRepository.delete(trainee);
+        credentialCache.invalidate(username);
 
-        log.info("Transaction [{}] - Trainee deleted successfully: {}", transactionId, username);
+        log.info("Trainee deleted successfully: {}", username);
         return true;
     }
 
     private void validateRequest(TraineeRequestDto request) {
-        String transactionId = MDC.get("transactionId");
         Set<jakarta.validation.ConstraintViolation<TraineeRequestDto>> violations = validator.validate(request);
         if (!violations.isEmpty()) {
             String errors = violations.stream()
                     .map(jakarta.validation.ConstraintViolation::getMessage)
                     .collect(Collectors.joining(", "));
-            log.warn("Transaction [{}] - Validation failed: {}", transactionId, errors);
+            log.warn("Validation failed: {}", errors);
 
             Set<ConstraintViolation<?>> genericViolations = violations.stream()
                     .map(v -> (ConstraintViolation<?>) v)
@@ -174,67 +233,50 @@ public class TraineeServiceImpl implements TraineeService {
         }
     }
 
+    private void validateBatchSize(List<TraineeRequestDto> requests) {
+        if (requests == null || requests.isEmpty() || requests.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch must contain between 1 and " + MAX_BATCH_SIZE + " trainees");
+        }
+    }
+
+    private String findValidationError(TraineeRequestDto request) {
+        if (request == null) {
+            return "Trainee request is empty";
+        }
+        Set<ConstraintViolation<TraineeRequestDto>> violations = validator.validate(request);
+        return violations.isEmpty() ? null : violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
     private Trainee getTraineeOrThrow(String username) {
-        String transactionId = MDC.get("transactionId");
         return traineeRepository.findByUsername(username)
                 .orElseThrow(() -> {
-                    log.warn("Transaction [{}] - Trainee not found: {}", transactionId, username);
+                    log.warn("Trainee not found: {}", username);
+                    return new TraineeNotFoundException("Trainee not found: " + username);
+                });
+    }
+
+    private Trainee getTraineeWithTrainersOrThrow(String username) {
+        return traineeRepository.findWithTrainersByUsername(username)
+                .orElseThrow(() -> {
+                    log.warn("Trainee not found: {}", username);
                     return new TraineeNotFoundException("Trainee not found: " + username);
                 });
     }
 
     private void validatePassword(String password) {
-        String transactionId = MDC.get("transactionId");
         if (password == null || password.trim().isEmpty()) {
-            log.warn("Transaction [{}] - Password validation failed: empty password", transactionId);
+            log.warn("Password validation failed: empty password");
             throw new InvalidPasswordException("New password cannot be empty.");
         }
         if (password.length() != 10) {
-            log.warn("Transaction [{}] - Password validation failed: incorrect length", transactionId);
+            log.warn("Password validation failed: incorrect length");
             throw new InvalidPasswordException("Password must be exactly 10 characters long.");
         }
     }
 
-    private String getAuthenticatedUsername() {
-        String transactionId = MDC.get("transactionId");
-        String authHeader = request.getHeader("Authorization");
-
-        if (authHeader != null && authHeader.startsWith("Basic ")) {
-            String base64Credentials = authHeader.substring("Basic ".length());
-            String credentials = new String(Base64.getDecoder().decode(base64Credentials), StandardCharsets.UTF_8);
-            String[] values = credentials.split(":", 2);
-
-            if (values.length != 2) {
-                log.warn("Transaction [{}] - Invalid authentication format", transactionId);
-                throw new UnauthorizedException("Invalid authentication format");
-            }
-
-            String username = values[0];
-            String password = values[1];
-
-            log.info("Attempting authentication for username: {}", username);
-
-            Optional<Trainee> traineeOptional = traineeRepository.findByUsername(username);
-            if (traineeOptional.isEmpty()) {
-                log.warn("Transaction [{}] - Authentication failed: username {} not found", transactionId, username);
-                throw new UnauthorizedException("Invalid username or password");
-            }
-
-            Trainee trainee = traineeOptional.get();
-
-            if (!trainee.getPassword().equals(password)) {
-                log.warn("Transaction [{}] - Authentication failed: incorrect password for user {}", transactionId, username);
-                throw new UnauthorizedException("Invalid username or password");
-            }
-
-            log.info("Transaction [{}] - Authentication successful for user: {}", transactionId, username);
-            return username;
-        }
-
-        log.warn("Transaction [{}] - Unauthorized request", transactionId);
-        throw new UnauthorizedException("Unauthorized request");
-    }
-
     private TraineeResponseDto mapToResponseWithUsername(Trainee trainee) {
         return TraineeResponseDto.builder()
                 .username(trainee.getUsername())
@@ -255,19 +297,21 @@ public class TraineeServiceImpl implements TraineeService {
                 .build();
     }
 
-    private TraineeResponseDto mapToResponseWithTrainers(Trainee trainee) {
+    private TraineeResponseDto mapProfileToResponse(List<TraineeProfileView> rows) {
+        TraineeProfileView profile = rows.get(0);
         return TraineeResponseDto.builder()
-                .firstName(trainee.getFirstName())
-                .lastName(trainee.getLastName())
-                .dateOfBirth(trainee.getDateOfBirth())
-                .address(trainee.getAddress())
-                .isActive(trainee.getIsActive())
-                .trainers(trainee.getTrainers().stream()
-                        .map(trainer -> TrainerResponseDto.builder()
-                                .username(trainer.getUsername())
-                                .firstName(trainer.getFirstName())
-                                .lastName(trainer.getLastName())
-                                .specializationId(trainer.getSpecialization().getId())
+                .firstName(profile.getFirstName())
+                .lastName(profile.getLastName())
+                .dateOfBirth(profile.getDateOfBirth())
+                .address(profile.getAddress())
+                .isActive(profile.getIsActive())
+                .trainers(rows.stream()
+                        .filter(row -> row.getTrainerUsername() != null)
+                        .map(row -> TrainerResponseDto.builder()
+                                .username(row.getTrainerUsername())
+                                .firstName(row.getTrainerFirstName())
+                                .lastName(row.getTrainerLastName())
+                                .specializationId(row.getTrainerSpecializationId())
                                 .build()
                         )
                         .collect(Collectors.toList()))
@@ -1,12 +1,14 @@
 package sports.center.com.service.impl;
 
-import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.slf4j.MDC;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import sports.center.com.cache.CredentialCache;
+import sports.center.com.cache.TrainingTypeCatalog;
+import sports.center.com.dto.registration.BatchRegistrationResponseDto;
+import sports.center.com.dto.registration.RegistrationResultDto;
 import sports.center.com.dto.trainee.TraineeResponseDto;
 import sports.center.com.dto.trainer.TrainerRequestDto;
 import sports.center.com.dto.trainer.TrainerResponseDto;
@@ -14,16 +16,15 @@ import sports.center.com.exception.exceptions.*;
 import sports.center.com.model.Trainer;
 import sports.center.com.model.TrainingType;
 import sports.center.com.repository.TrainerRepository;
-import sports.center.com.repository.TrainingTypeRepository;
+import sports.center.com.repository.projection.ProfileVersionView;
+import sports.center.com.repository.projection.TrainerProfileView;
+import sports.center.com.security.AuthenticationContext;
+import sports.center.com.security.UserRole;
 import sports.center.com.service.TrainerService;
 import sports.center.com.util.PasswordUtil;
 import sports.center.com.util.UsernameUtil;
 
-import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
-import java.util.Base64;
-import java.util.Optional;
-import java.util.Set;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,24 +32,26 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Transactional
 public class TrainerServiceImpl implements TrainerService {
+    private static final int MAX_BATCH_SIZE = 1000;
+
     private final TrainerRepository trainerRepository;
-    private final TrainingTypeRepository trainingTypeRepository;
+    private final TrainingTypeCatalog trainingTypeCatalog;
     private final UsernameUtil usernameUtil;
     private final Validator validator;
-    private final HttpServletRequest request;
+    private final AuthenticationContext authenticationContext;
+    private final CredentialCache credentialCache;
 
     @Override
     public TrainerResponseDto createTrainer(TrainerRequestDto trainerRequestDto) {
-        String transactionId = MDC.get("transactionId");
         validateRequest(trainerRequestDto);
-        log.info("[{}] Creating new trainer: {} {}", transactionId, trainerRequestDto.getFirstName(), trainerRequestDto.getLastName());
+        log.info("Creating new trainer: {} {}", trainerRequestDto.getFirstName(), trainerRequestDto.getLastName());
 
         String username = usernameUtil.generateUsername(trainerRequestDto.getFirstName(), trainerRequestDto.getLastName());
         String password = PasswordUtil.generatePassword();
 
         Long specializationId = trainerRequestDto.getSpecializationId();
 
-        TrainingType specialization = trainingTypeRepository.findById(specializationId)
+        TrainingType specialization = trainingTypeCatalog.findReferenceById(specializationId)
                 .orElseThrow(() -> new SpecializationNotFoundException(specializationId));
 
         Trainer trainer = new Trainer();
@@ -60,7 +63,7 @@ public class TrainerServiceImpl implements TrainerService {
         trainer.setSpecialization(specialization);
 
         trainerRepository.save(trainer);
-        log.info("[{}] Trainer created successfully: {}", transactionId, trainer.getUsername());
+        log.info("Trainer created successfully: {}", trainer.getUsername());
 
         return TrainerResponseDto.builder()
                 .username(username)
@@ -69,22 +72,102 @@ public class TrainerServiceImpl implements TrainerService {
     }
 
     @Override
+    public BatchRegistrationResponseDto createTrainers(List<TrainerRequestDto> trainerRequestDtos) {
+        validateBatchSize(trainerRequestDtos);
+        log.info("Creating {} trainers", trainerRequestDtos.size());
+
+        Map<Long, TrainingType> specializations = new HashMap<>();
+        trainerRequestDtos.stream()
+                .filter(Objects::nonNull)
+                .map(TrainerRequestDto::getSpecializationId)
+                .distinct()
+                .forEach(id -> trainingTypeCatalog.findReferenceById(id)
+                        .ifPresent(specialization -> specializations.put(id, specialization)));
+
+        RegistrationResultDto[] results = new RegistrationResultDto[trainerRequestDtos.size()];
+        // Sorted, so concurrent batches lock the username_sequences rows in the same order and cannot deadlock
+        Map<String, List<Integer>> indexesByBaseUsername = new TreeMap<>();
+
+        for (int i = 0; i < trainerRequestDtos.size(); i++) {
+            TrainerRequestDto request = trainerRequestDtos.get(i);
+            String error = findValidationError(request);
+            if (error == null && !specializations.containsKey(request.getSpecializationId())) {
+                error = "Specialization not found: " + request.getSpecializationId();
+            }
+            if (error != null) {
+                results[i] = RegistrationResultDto.builder().index(i).error(error).build();
+                continue;
+            }
+            indexesByBaseUsername
+                    .computeIfAbsent(usernameUtil.formatBaseUsername(request.getFirstName(), request.getLastName()),
+                            baseUsername -> new ArrayList<>())
+                    .add(i);
+        }
+
+        List<Trainer> trainers = new ArrayList<>();
+        for (List<Integer> indexes : indexesByBaseUsername.values()) {
+            TrainerRequestDto first = trainerRequestDtos.get(indexes.get(0));
+            List<String> usernames = usernameUtil.generateUsernames(first.getFirstName(), first.getLastName(), indexes.size());
+
+            for (int k = 0; k < indexes.size(); k++) {
+                int index = indexes.get(k);
+                TrainerRequestDto request = trainerRequestDtos.get(index);
+                String password = PasswordUtil.generatePassword();
+
+                Trainer trainer = new Trainer();
+                trainer.setFirstName(request.getFirstName());
+                trainer.setLastName(request.getLastName());
+                trainer.setUsername(usernames.get(k));
+                trainer.setPassword(password);
+                trainer.setIsActive(true);
+                trainer.setSpecialization(specializations.get(request.getSpecializationId()));
+                trainers.add(trainer);
+
+                results[index] = RegistrationResultDto.builder()
+                        .index(index)
+                        .username(trainer.getUsername())
+                        .password(password)
+                        .build();
+            }
+        }
+
+        trainerRepository.saveAll(trainers);
+        log.info("Created {} of {} trainers", trainers.size(), results.length);
+
+        return BatchRegistrationResponseDto.builder()
+                .created(trainers.size())
+                .failed(results.length - trainers.size())
+                .results(Arrays.asList(results))
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public TrainerResponseDto getTrainerProfile() {
-        String transactionId = MDC.get("transactionId");
-        String username = getAuthenticatedUsername();
-        log.info("[{}] Fetching trainer profile: {}", transactionId, username);
+        String username = authenticationContext.getUsername(UserRole.TRAINER);
+        log.info("Fetching trainer profile: {}", username);
 
-        Trainer trainer = findTrainerByUsername(username);
+        List<TrainerProfileView> rows = trainerRepository.findProfileByUsername(username);
+        if (rows.isEmpty()) {
+            throw new TrainerNotFoundException("Trainer not found: " + username);
+        }
 
-        log.info("[{}] Trainer profile fetched successfully: {}", transactionId, username);
-        return mapToResponseWithTrainees(trainer);
+        log.info("Trainer profile fetched successfully: {}", username);
+        return mapProfileToResponse(rows);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getTrainerProfileETag() {
+        String username = authenticationContext.getUsername(UserRole.TRAINER);
+        return ProfileVersionView.toETag("trainer", trainerRepository.findProfileVersionByUsername(username))
+                .orElseThrow(() -> new TrainerNotFoundException("Trainer not found: " + username));
     }
 
     @Override
     public boolean changeTrainerPassword(String newPassword) {
-        String transactionId = MDC.get("transactionId");
-        String username = getAuthenticatedUsername();
-        log.info("Transaction [{}] - Changing password for trainer: {}", transactionId, username);
+        String username = authenticationContext.getUsername(UserRole.TRAINER);
+        log.info("Changing password for trainer: {}", username);
 
         validatePassword(newPassword);
 
@@ -92,17 +175,17 @@ public class TrainerServiceImpl implements TrainerService {
         trainer.setPassword(newPassword);
 
         trainerRepository.save(trainer);
+        credentialCache.invalidate(username);
 
-        log.info("[{}] Trainer password changed successfully: {}", transactionId, username);
+        log.info("Trainer password changed successfully: {}", username);
 
         return true;
     }
 
     @Override
     public TrainerResponseDto updateTrainerProfile(TrainerRequestDto request) {
-        String transactionId = MDC.get("transactionId");
-        String username = getAuthenticatedUsername();
-        log.info("[{}] Updating trainer profile: {}", transactionId, username);
+        String username = authenticationContext.getUsername(UserRole.TRAINER);
+        log.info("Updating trainer profile: {}", username);
 
         Trainer trainer = findTrainerByUsername(username);
 
@@ -111,45 +194,44 @@ public class TrainerServiceImpl implements TrainerService {
         trainer.setIsActive(request.getIsActive());
 
         trainerRepository.save(trainer);
-        log.info("[{}] Trainer profile updated successfully: {}", transactionId, username);
+        credentialCache.invalidate(username);
+        log.info("Trainer profile updated successfully: {}", username);
 
         return mapToResponseWithTraineesUsername(trainer);
     }
 
     @Override
     public boolean changeTrainerStatus() {
-        String transactionId = MDC.get("transactionId");
-        String username = getAuthenticatedUsername();
-        log.info("[{}] Toggling trainer status for {}", transactionId, username);
+        String username = authenticationContext.getUsername(UserRole.TRAINER);
+        log.info("Toggling trainer status for {}", username);
 
         Trainer trainer = getTrainerOrThrow(username);
 
         boolean newStatus = !trainer.getIsActive();
         trainer.setIsActive(newStatus);
         trainerRepository.save(trainer);
+        credentialCache.invalidate(username);
 
-        log.info("[{}] Trainer status toggled for {}: new status = {}", transactionId, username, newStatus);
+        log.info("Trainer status toggled for {}: new status = {}", username, newStatus);
         return newStatus;
     }
 
     private Trainer getTrainerOrThrow(String username) {
-        String transactionId = MDC.get("transactionId");
         return trainerRepository.findByUsername(username)
                 .orElseThrow(() -> {
-                    log.warn("Transaction [{}] - Trainer not found: {}", transactionId, username);
+                    log.warn("Trainer not found: {}", username);
                     return new TrainerNotFoundException("Trainer not found: " + username);
                 });
     }
 
     private void validateRequest(TrainerRequestDto request) {
-        String transactionId = MDC.get("transactionId");
         Set<jakarta.validation.ConstraintViolation<TrainerRequestDto>> violations = validator.validate(request);
         if (!violations.isEmpty()) {
             String errors = violations.stream()
                     .map(jakarta.validation.ConstraintViolation::getMessage)
                     .collect(Collectors.joining(", "));
 
-            log.warn("[{}] Validation failed: {}", transactionId, errors);
+            log.warn("Validation failed: {}", errors);
 
             Set<jakarta.validation.ConstraintViolation<?>> genericViolations = violations.stream()
                     .map(v -> (jakarta.validation.ConstraintViolation<?>) v)
@@ -159,74 +241,54 @@ public class TrainerServiceImpl implements TrainerService {
         }
     }
 
-    private String getAuthenticatedUsername() {
-        String transactionId = MDC.get("transactionId");
-        String authHeader = request.getHeader("Authorization");
-
-        if (authHeader != null && authHeader.startsWith("Basic ")) {
-            String base64Credentials = authHeader.substring("Basic ".length());
-            String credentials = new String(Base64.getDecoder().decode(base64Credentials), StandardCharsets.UTF_8);
-            String[] values = credentials.split(":", 2);
-
-            if (values.length != 2) {
-                throw new UnauthorizedException("Invalid authentication format");
-            }
-
-            String username = values[0];
-            String password = values[1];
-
-            log.info("[{}] Attempting authentication for username: {}", transactionId, username);
-
-            Optional<Trainer> trainerOptional = trainerRepository.findByUsername(username);
-            if (trainerOptional.isEmpty()) {
-                log.warn("[{}] Authentication failed: username {} not found", transactionId, username);
-                throw new UnauthorizedException("Invalid username or password");
-            }
-
-            Trainer trainer = trainerOptional.get();
-
-            if (trainer.getPassword() == null || !trainer.getPassword().equals(password)) {
-                log.warn("[{}] Authentication failed: incorrect or missing password for user {}", transactionId, username);
-                throw new UnauthorizedException("Invalid username or password");
-            }
-
-            log.info("[{}] Authentication successful for user: {}", transactionId, username);
-            return username;
+    private void validateBatchSize(List<TrainerRequestDto> requests) {
+        if (requests == null || requests.isEmpty() || requests.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch must contain between 1 and " + MAX_BATCH_SIZE + " trainers");
         }
+    }
 
-        throw new UnauthorizedException("Unauthorized request");
+    private String findValidationError(TrainerRequestDto request) {
+        if (request == null) {
+            return "Trainer request is empty";
+        }
+        Set<jakarta.validation.ConstraintViolation<TrainerRequestDto>> violations = validator.validate(request);
+        return violations.isEmpty() ? null : violations.stream()
+                .map(jakarta.validation.ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(", "));
     }
 
     private void validatePassword(String password) {
-        String transactionId = MDC.get("transactionId");
         if (password == null || password.trim().isEmpty()) {
-            log.warn("Transaction [{}] - Password validation failed: empty password", transactionId);
+            log.warn("Password validation failed: empty password");
             throw new InvalidPasswordException("New password cannot be empty.");
         }
         if (password.length() != 10) {
-            log.warn("Transaction [{}] - Password validation failed: incorrect length", transactionId);
+            log.warn("Password validation failed: incorrect length");
             throw new InvalidPasswordException("Password must be exactly 10 characters long.");
         }
     }
 
     private Trainer findTrainerByUsername(String username) {
-        return trainerRepository.findByUsername(username)
+        return trainerRepository.findWithTraineesByUsername(username)
                 .orElseThrow(() -> new TrainerNotFoundException("Trainer not found: " + username));
     }
 
-    private TrainerResponseDto mapToResponseWithTrainees(Trainer trainer) {
+    private TrainerResponseDto mapProfileToResponse(List<TrainerProfileView> rows) {
+        TrainerProfileView profile = rows.get(0);
         return TrainerResponseDto.builder()
-                .firstName(trainer.getFirstName())
-                .lastName(trainer.getLastName())
-                .specializationId(trainer.getSpecialization().getId())
-                .isActive(trainer.getIsActive())
-                .trainees(trainer.getTrainees() != null ? trainer.getTrainees().stream()
-                        .map(trainee -> TraineeResponseDto.builder()
-                                .username(trainee.getUsername())
-                                .firstName(trainee.getFirstName())
-                                .lastName(trainee.getLastName())
+                .firstName(profile.getFirstName())
+                .lastName(profile.getLastName())
+                .specializationId(profile.getSpecializationId())
+                .isActive(profile.getIsActive())
+                .trainees(rows.stream()
+                        .filter(row -> row.getTraineeUsername() != null)
+                        .map(row -> TraineeResponseDto.builder()
+                                .username(row.getTraineeUsername())
+                                .firstName(row.getTraineeFirstName())
+                                .lastName(row.getTraineeLastName())
                                 .build())
-                        .collect(Collectors.toList()) : new ArrayList<>())
+                        .collect(Collectors.toList()))
                 .build();
     }
 
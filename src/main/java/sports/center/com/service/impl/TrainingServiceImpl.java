@@ -1,13 +1,15 @@
 package sports.center.com.service.impl;
 
-import jakarta.servlet.http.HttpServletRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.slf4j.MDC;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import sports.center.com.cache.TrainingTypeCatalog;
 import sports.center.com.dto.trainer.TrainerResponseDto;
+import sports.center.com.dto.training.TrainingPageDto;
 import sports.center.com.dto.training.TrainingRequestDto;
 import sports.center.com.dto.training.TrainingResponseDto;
 import sports.center.com.dto.training.TrainingTypeResponseDto;
@@ -18,33 +20,38 @@ import sports.center.com.model.Training;
 import sports.center.com.model.TrainingType;
 import sports.center.com.repository.TraineeRepository;
 import sports.center.com.repository.TrainerRepository;
+import sports.center.com.repository.TrainingCursor;
 import sports.center.com.repository.TrainingRepository;
-import sports.center.com.repository.TrainingTypeRepository;
+import sports.center.com.security.AuthenticationContext;
 import sports.center.com.service.TrainingService;
 
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 @Transactional
 public class TrainingServiceImpl implements TrainingService {
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final TrainingRepository trainingRepository;
     private final TraineeRepository traineeRepository;
     private final TrainerRepository trainerRepository;
-    private final TrainingTypeRepository trainingTypeRepository;
+    private final TrainingTypeCatalog trainingTypeCatalog;
     private final Validator validator;
-    private final HttpServletRequest request;
+    private final AuthenticationContext authenticationContext;
+    private final ObjectMapper objectMapper;
 
     @Override
     public TrainingResponseDto addTraining(TrainingRequestDto request) {
         if (request == null) {
             throw new InvalidTrainerRequestException("Training request cannot be null", Set.of());
         }
-        String transactionId = MDC.get("transactionId");
-        log.info("[Transaction ID: {}] Adding new training: Trainee={}, Trainer={}", transactionId, request.getTraineeUsername(), request.getTrainerUsername());
+        log.info("Adding new training: Trainee={}, Trainer={}", request.getTraineeUsername(), request.getTrainerUsername());
 
         validateTrainingRequest(request);
 
@@ -65,7 +72,7 @@ public class TrainingServiceImpl implements TrainingService {
 
         trainingRepository.save(training);
 
-        log.info("[Transaction ID: {}] Training '{}' added successfully for trainee {}", transactionId, request.getTrainingName(), request.getTraineeUsername());
+        log.info("Training '{}' added successfully for trainee {}", request.getTrainingName(), request.getTraineeUsername());
 
         return TrainingResponseDto.builder()
                 .traineeUsername(trainee.getUsername())
@@ -73,12 +80,12 @@ public class TrainingServiceImpl implements TrainingService {
                 .trainingName(training.getTrainingName())
                 .trainingDate(training.getTrainingDate())
                 .trainingDuration(training.getTrainingDuration())
-                .trainingTypeName(training.getTrainingType().getTrainingTypeName())
+                .trainingTypeName(request.getTrainingTypeName())
                 .build();
     }
 
     private Trainee findTraineeByUsername(String username) {
-        return traineeRepository.findByUsername(username)
+        return traineeRepository.findWithTrainersByUsername(username)
                 .orElseThrow(() -> new TraineeNotFoundException("Trainee not found: " + username));
     }
 
@@ -88,31 +95,30 @@ public class TrainingServiceImpl implements TrainingService {
     }
 
     private TrainingType findTrainingTypeByName(String trainingTypeName) {
-        return trainingTypeRepository.findByTrainingTypeName(trainingTypeName)
+        return trainingTypeCatalog.findReferenceByName(trainingTypeName)
                 .orElseThrow(() -> new TrainingTypeNotFoundException("Training type not found: " + trainingTypeName));
     }
 
     private void assignTrainerIfNotAssigned(Trainee trainee, Trainer trainer) {
-        String transactionId = MDC.get("transactionId");
         if (trainee.getTrainers() == null) {
             trainee.setTrainers(new ArrayList<>());
         }
         if (!trainee.getTrainers().contains(trainer)) {
             trainee.getTrainers().add(trainer);
             traineeRepository.save(trainee);
-            log.info("[Transaction ID: {}] Trainer {} assigned to trainee {}", transactionId, trainer.getUsername(), trainee.getUsername());
+            log.info("Trainer {} assigned to trainee {}", trainer.getUsername(), trainee.getUsername());
         }
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<TrainerResponseDto> getNotAssignedActiveTrainers() {
-        String username = getAuthenticatedUsername();
-        String transactionId = MDC.get("transactionId");
-        log.info("[Transaction ID: {}] Fetching not assigned active trainers for trainee: {}", transactionId, username);
+        String username = authenticationContext.getUsername();
+        log.info("Fetching not assigned active trainers for trainee: {}", username);
         List<Trainer> trainers = Optional.ofNullable(trainerRepository.findNotAssignedActiveTrainers(username))
                 .orElse(Collections.emptyList());
 
-        log.debug("[Transaction ID: {}] Found {} not assigned active trainers", transactionId, trainers.size());
+        log.debug("Found {} not assigned active trainers", trainers.size());
         return trainers.stream()
                 .map(trainer -> TrainerResponseDto.builder()
                         .username(trainer.getUsername())
@@ -125,58 +131,134 @@ public class TrainingServiceImpl implements TrainingService {
 
     @Override
     public List<TrainingTypeResponseDto> getTrainingType() {
-        List<TrainingType> trainingTypes = trainingTypeRepository.findAll();
+        return trainingTypeCatalog.findAll();
+    }
 
-        return trainingTypes.stream()
-                .map(this::mapToResponseTrainingType)
-                .collect(Collectors.toList());
+    @Override
+    public String getTrainingTypesETag() {
+        return trainingTypeCatalog.getETag();
     }
 
     @Override
     public List<TrainerResponseDto> updateTraineeTrainersList(List<String> trainerUsernames) {
-        String transactionId = MDC.get("transactionId");
-        String username = getAuthenticatedUsername();
-        log.info("[Transaction ID: {}] Update trainers list for trainee: {}", transactionId, username);
+        String username = authenticationContext.getUsername();
+        log.info("Update trainers list for trainee: {}", username);
 
 
         Trainee trainee = getTraineeOrThrow(username);
         List<Trainer> validTrainers = getValidTrainersOrThrow(trainerUsernames);
 
-        log.debug("[Transaction ID: {}] Valid trainers found: {}", transactionId, validTrainers.size());
+        log.debug("Valid trainers found: {}", validTrainers.size());
         updateTraineeTrainerList(trainee, validTrainers);
 
-        log.info("[Transaction ID: {}] Trainee {}'s trainer list updated successfully", transactionId, username);
+        log.info("Trainee {}'s trainer list updated successfully", username);
         return mapTrainersToResponse(trainee.getTrainers());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<TrainingResponseDto> getTraineeTrainings(Date fromDate, Date toDate, String trainerName, String trainingType) {
-        String transactionId = MDC.get("transactionId");
-        String traineeUsername = getAuthenticatedUsername();
-        log.info("[Transaction ID: {}] Fetching trainings for Trainee: {} from {} to {}, Trainer: {}, TrainingType: {}", transactionId, traineeUsername, fromDate, toDate, trainerName, trainingType);
+        String traineeUsername = authenticationContext.getUsername();
+        log.info("Fetching trainings for Trainee: {} from {} to {}, Trainer: {}, TrainingType: {}", traineeUsername, fromDate, toDate, trainerName, trainingType);
 
-        List<Training> trainings = trainingRepository.findTrainingsByTraineeCriteria(
+        List<TrainingResponseDto> trainings = trainingRepository.findTrainingsByTraineeCriteria(
                 traineeUsername, fromDate, toDate, trainerName, trainingType);
 
-        log.debug("[Transaction ID: {}] Found {} trainings for Trainee: {}", transactionId, trainings.size(), traineeUsername);
-        return trainings.stream().map(this::mapToResponseTrainee).collect(Collectors.toList());
+        log.debug("Found {} trainings for Trainee: {}", trainings.size(), traineeUsername);
+        return trainings;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<TrainingResponseDto> getTrainerTrainings(Date fromDate, Date toDate, String traineeName) {
-        String transactionId = MDC.get("transactionId");
-        String trainerUsername = getAuthenticatedUsername();
-        log.info("[Transaction ID: {}] Fetching trainings for Trainer: {} from {} to {}, Trainee: {}", transactionId, trainerUsername, fromDate, toDate, traineeName);
+        String trainerUsername = authenticationContext.getUsername();
+        log.info("Fetching trainings for Trainer: {} from {} to {}, Trainee: {}", trainerUsername, fromDate, toDate, traineeName);
 
-        List<Training> trainings = trainingRepository.findTrainingsByTrainerCriteria(
+        List<TrainingResponseDto> trainings = trainingRepository.findTrainingsByTrainerCriteria(
                 trainerUsername, fromDate, toDate, traineeName);
 
-        log.debug("[Transaction ID: {}] Found {} trainings for Trainer: {}", transactionId, trainings.size(), trainerUsername);
-        return trainings.stream().map(this::mapToResponseTrainer).collect(Collectors.toList());
+        log.debug("Found {} trainings for Trainer: {}", trainings.size(), trainerUsername);
+        return trainings;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TrainingPageDto getTraineeTrainings(Date fromDate, Date toDate, String trainerName, String trainingType,
+                                               String cursor, int limit) {
+        String traineeUsername = authenticationContext.getUsername();
+        log.info("Fetching page of {} trainings for Trainee: {} from {} to {}, Trainer: {}, TrainingType: {}", limit, traineeUsername, fromDate, toDate, trainerName, trainingType);
+
+        TrainingPageDto page = trainingRepository.findTrainingsByTraineeCriteria(
+                traineeUsername, fromDate, toDate, trainerName, trainingType, decodeCursor(cursor), validatePageSize(limit));
+
+        log.debug("Found {} trainings for Trainee: {}", page.getTrainings().size(), traineeUsername);
+        return page;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TrainingPageDto getTrainerTrainings(Date fromDate, Date toDate, String traineeName, String cursor, int limit) {
+        String trainerUsername = authenticationContext.getUsername();
+        log.info("Fetching page of {} trainings for Trainer: {} from {} to {}, Trainee: {}", limit, trainerUsername, fromDate, toDate, traineeName);
+
+        TrainingPageDto page = trainingRepository.findTrainingsByTrainerCriteria(
+                trainerUsername, fromDate, toDate, traineeName, decodeCursor(cursor), validatePageSize(limit));
+
+        log.debug("Found {} trainings for Trainer: {}", page.getTrainings().size(), trainerUsername);
+        return page;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportTraineeTrainings(Date fromDate, Date toDate, String trainerName, String trainingType, OutputStream out)
+            throws IOException {
+        String traineeUsername = authenticationContext.getUsername();
+        log.info("Streaming trainings for Trainee: {} from {} to {}, Trainer: {}, TrainingType: {}", traineeUsername, fromDate, toDate, trainerName, trainingType);
+
+        try (Stream<TrainingResponseDto> trainings = trainingRepository.streamTrainingsByTraineeCriteria(
+                traineeUsername, fromDate, toDate, trainerName, trainingType)) {
+            long count = writeNdjson(trainings, out);
+            log.debug("Streamed {} trainings for Trainee: {}", count, traineeUsername);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportTrainerTrainings(Date fromDate, Date toDate, String traineeName, OutputStream out) throws IOException {
+        String trainerUsername = authenticationContext.getUsername();
+        log.info("Streaming trainings for Trainer: {} from {} to {}, Trainee: {}", trainerUsername, fromDate, toDate, traineeName);
+
+        try (Stream<TrainingResponseDto> trainings = trainingRepository.streamTrainingsByTrainerCriteria(
+                trainerUsername, fromDate, toDate, traineeName)) {
+            long count = writeNdjson(trainings, out);
+            log.debug("Streamed {} trainings for Trainer: {}", count, trainerUsername);
+        }
+    }
+
+    private long writeNdjson(Stream<TrainingResponseDto> trainings, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(TrainingResponseDto.class);
+        long count = 0;
+        for (Iterator<TrainingResponseDto> iterator = trainings.iterator(); iterator.hasNext(); count++) {
+            out.write(writer.writeValueAsBytes(iterator.next()));
+            out.write('\n');
+        }
+        out.flush();
+        return count;
+    }
+
+    private int validatePageSize(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return limit;
+    }
+
+    private TrainingCursor decodeCursor(String cursor) {
+        return cursor == null || cursor.isEmpty() ? null : TrainingCursor.decode(cursor);
     }
 
     private Trainee getTraineeOrThrow(String username) {
-        return traineeRepository.findByUsername(username)
+        return traineeRepository.findWithTrainersByUsername(username)
                 .orElseThrow(() -> new TraineeNotFoundException("Trainee not found with username: " + username));
     }
 
@@ -193,14 +275,13 @@ public class TrainingServiceImpl implements TrainingService {
     }
 
     private void validateTrainingRequest(TrainingRequestDto request) {
-        String transactionId = MDC.get("transactionId");
         Set<jakarta.validation.ConstraintViolation<TrainingRequestDto>> violations = validator.validate(request);
         if (!violations.isEmpty()) {
             String errors = violations.stream()
                     .map(jakarta.validation.ConstraintViolation::getMessage)
                     .collect(Collectors.joining(", "));
 
-            log.warn("[Transaction ID: {}] Validation failed: {}", transactionId, errors);
+            log.warn("Validation failed: {}", errors);
 
             Set<jakarta.validation.ConstraintViolation<?>> genericViolations = violations.stream()
                     .map(v -> (jakarta.validation.ConstraintViolation<?>) v)
@@ -211,61 +292,10 @@ public class TrainingServiceImpl implements TrainingService {
     }
 
     private void updateTraineeTrainerList(Trainee trainee, List<Trainer> validTrainers) {
-        String transactionId = MDC.get("transactionId");
         List<Trainer> uniqueTrainers = new ArrayList<>(new HashSet<>(validTrainers));
         trainee.setTrainers(uniqueTrainers);
         traineeRepository.save(trainee);
-        log.info("[Transaction ID: {}] Updated trainers list for Trainee: {}", transactionId, trainee.getUsername());
-    }
-
-    private String getAuthenticatedUsername() {
-        String transactionId = MDC.get("transactionId");
-        String authHeader = request.getHeader("Authorization");
-
-        if (authHeader == null || !authHeader.startsWith("Basic ")) {
-            log.warn("[Transaction ID: {}] Unauthorized request", transactionId);
-            throw new UnauthorizedException("Unauthorized request");
-        }
-
-        String base64Credentials = authHeader.substring("Basic ".length());
-        String credentials = new String(Base64.getDecoder().decode(base64Credentials), StandardCharsets.UTF_8);
-        String[] values = credentials.split(":", 2);
-
-        if (values.length != 2) {
-            log.warn("[Transaction ID: {}] Invalid authentication format", transactionId);
-            throw new UnauthorizedException("Invalid authentication format");
-        }
-
-        String username = values[0];
-        String password = values[1];
-
-        log.info("[Transaction ID: {}] Attempting authentication for username: {}", transactionId, username);
-
-        Optional<Trainee> traineeOptional = traineeRepository.findByUsername(username);
-        if (traineeOptional.isPresent()) {
-            return validatePasswordAndReturnUsername(traineeOptional.get(), password, username, "trainee");
-        }
-
-        Optional<Trainer> trainerOptional = trainerRepository.findByUsername(username);
-        if (trainerOptional.isPresent()) {
-            return validatePasswordAndReturnUsername(trainerOptional.get(), password, username, "trainer");
-        }
-
-        log.warn("[Transaction ID: {}] Authentication failed: username {} not found", transactionId, username);
-        throw new UnauthorizedException("Invalid username or password");
-    }
-
-    private String validatePasswordAndReturnUsername(Object user, String password, String username, String userType) {
-        String transactionId = MDC.get("transactionId");
-        String userPassword = (user instanceof Trainee) ? ((Trainee) user).getPassword() : ((Trainer) user).getPassword();
-
-        if (userPassword == null || !userPassword.equals(password)) {
-            log.warn("[Transaction ID: {}] Authentication failed: incorrect or missing password for {} {}", transactionId, userType, username);
-            throw new UnauthorizedException("Invalid username or password");
-        }
-
-        log.info("[Transaction ID: {}] Authentication successful for {}: {}", transactionId, userType, username);
-        return username;
+        log.info("Updated trainers list for Trainee: {}", trainee.getUsername());
     }
 
     private List<TrainerResponseDto> mapTrainersToResponse(List<Trainer> trainers) {
@@ -279,31 +309,4 @@ public class TrainingServiceImpl implements TrainingService {
                         .build())
                 .toList();
     }
-
-    private TrainingTypeResponseDto mapToResponseTrainingType(TrainingType trainingType) {
-        return TrainingTypeResponseDto.builder()
-                .id(trainingType.getId())
-                .trainingTypeName(trainingType.getTrainingTypeName())
-                .build();
-    }
-
-    private TrainingResponseDto mapToResponseTrainee(Training training) {
-        return TrainingResponseDto.builder()
-                .trainingName(training.getTrainingName())
-                .trainingDate(training.getTrainingDate())
-                .trainingDuration(training.getTrainingDuration())
-                .trainingTypeName(training.getTrainingType().getTrainingTypeName())
-                .trainerUsername(training.getTrainer().getUsername())
-                .build();
-    }
-
-    private TrainingResponseDto mapToResponseTrainer(Training training) {
-        return TrainingResponseDto.builder()
-                .trainingName(training.getTrainingName())
-                .trainingDate(training.getTrainingDate())
-                .trainingDuration(training.getTrainingDuration())
-                .trainingTypeName(training.getTrainingType().getTrainingTypeName())
-                .traineeUsername(training.getTrainee().getUsername())
-                .build();
-    }
 }
\ No newline at end of file
@@ -1,19 +1,30 @@
 package sports.center.com.service.impl;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import sports.center.com.service.TransactionService;
 
-import java.util.UUID;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Generates time-ordered transaction ids: a 64-bit value made of the epoch millisecond shifted left by 12 bits
+ * plus a per-millisecond counter, followed by a random instance suffix drawn once at startup. Ids from one
+ * instance are unique and sort by creation time, and generating one costs a CAS instead of a SecureRandom call.
+ */
 @Service
 @Slf4j
-@RequiredArgsConstructor
-@Transactional
 public class TransactionServiceImpl implements TransactionService {
+    private static final int COUNTER_BITS = 12;
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final AtomicLong lastId = new AtomicLong();
+    private final String instanceSuffix = "-" + HEX.toHexDigits(new SecureRandom().nextInt());
+
     public String generateTransactionId() {
-        return UUID.randomUUID().toString();
+        long timestamp = System.currentTimeMillis() << COUNTER_BITS;
+        long id = lastId.updateAndGet(previous -> Math.max(previous + 1, timestamp));
+        return HEX.toHexDigits(id) + instanceSuffix;
     }
-}
\ No newline at end of file
+}
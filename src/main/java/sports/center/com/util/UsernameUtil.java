@@ -1,71 +1,185 @@
 package sports.center.com.util;
 
 import jakarta.persistence.EntityManager;
-import jakarta.persistence.TypedQuery;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
+import sports.center.com.exception.exceptions.UsernameAllocationException;
 
-import java.util.Objects;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+/**
+ * Allocates "first.last[N]" usernames from the per-base-name counters in username_sequences. A counter is
+ * seeded once from the highest suffix already in use; afterwards each allocation is a single primary-key update
+ * whose row lock serializes concurrent registrations of the same name only. Each candidate is then guarded by a
+ * transaction-scoped advisory lock and checked against users, so a name taken outside the counter is skipped.
+ */
 @Component
 @RequiredArgsConstructor
 public class UsernameUtil {
     private static final Logger logger = LoggerFactory.getLogger(UsernameUtil.class);
 
+    private static final String NEXT_INDEX_SQL = """
+            UPDATE username_sequences SET last_index = last_index + :count
+            WHERE base_username = :baseUsername
+            RETURNING last_index
+            """;
+
+    // [base, base + ':') in byte order covers the base name followed by nothing or by a digit
+    private static final String MAX_USED_INDEX_SQL = """
+            SELECT COALESCE(MAX(CASE WHEN length(u.username) = length(:baseUsername) THEN 0
+                                     ELSE CAST(substring(u.username FROM length(:baseUsername) + 1) AS INTEGER) END), -1)
+            FROM users u
+            WHERE u.username COLLATE "C" >= :lowerBound
+              AND u.username COLLATE "C" < :upperBound
+              AND substring(u.username FROM length(:baseUsername) + 1) ~ '^[0-9]{0,9}$'
+            """;
+
+    private static final String SEED_INDEX_SQL = """
+            INSERT INTO username_sequences (base_username, last_index) VALUES (:baseUsername, :lastIndex)
+            ON CONFLICT (base_username) DO UPDATE SET last_index = username_sequences.last_index + :count
+            RETURNING last_index
+            """;
+
+    private static final String LOCK_USERNAME_SQL = "SELECT 1 FROM pg_advisory_xact_lock(hashtext(:username))";
+
+    private static final String USERNAME_EXISTS_SQL = "SELECT EXISTS (SELECT 1 FROM users WHERE username = :username)";
+
+    // Candidates are passed sorted, so concurrent batches take overlapping locks in the same order
+    private static final String LOCK_USERNAMES_SQL = """
+            SELECT COUNT(pg_advisory_xact_lock(hashtext(c)))
+            FROM unnest(CAST(ARRAY[:usernames] AS TEXT[])) c
+            """;
+
+    private static final String EXISTING_USERNAMES_SQL = "SELECT u.username FROM users u WHERE u.username IN (:usernames)";
+
+    private static final int MAX_ALLOCATION_ATTEMPTS = 10;
+
     private final EntityManager entityManager;
 
     public String generateUsername(String firstName, String lastName) {
-        if (firstName == null || lastName == null || firstName.trim().isEmpty() || lastName.trim().isEmpty()) {
-            throw new IllegalArgumentException("First name and last name cannot be null");
+        String baseUsername = formatBaseUsername(firstName, lastName);
+
+        for (int attempt = 1; attempt <= MAX_ALLOCATION_ATTEMPTS; attempt++) {
+            String candidate = formatFinalUsername(baseUsername, reserveIndexes(baseUsername, 1));
+            if (reserve(candidate)) {
+                return candidate;
+            }
+            logger.warn("Username {} is already taken, allocating the next index (attempt {})", candidate, attempt);
         }
 
+        throw new UsernameAllocationException(baseUsername);
+    }
+
+    /**
+     * Allocates {@code count} usernames for the same name with one counter update and one lock and existence
+     * check per pass. Candidates that turn out to be taken are replaced in a further pass that again locks its
+     * candidates in sorted order, so a batch never takes an advisory lock out of order while holding others.
+     */
+    public List<String> generateUsernames(String firstName, String lastName, int count) {
         String baseUsername = formatBaseUsername(firstName, lastName);
-        Set<String> existingUsernames = getAllUsernames();
-        Set<Integer> usedIndexes = extractUsedIndexes(existingUsernames, baseUsername);
-        int nextIndex = calculateNextIndex(usedIndexes);
-        String finalUsername = formatFinalUsername(baseUsername, nextIndex);
+        if (count <= 0) {
+            return List.of();
+        }
+
+        String[] usernames = new String[count];
+        List<Integer> pending = IntStream.range(0, count).boxed().toList();
 
-        return finalUsername;
+        for (int attempt = 1; attempt <= MAX_ALLOCATION_ATTEMPTS; attempt++) {
+            int lastIndex = reserveIndexes(baseUsername, pending.size());
+            List<String> candidates = new ArrayList<>(pending.size());
+            for (int index = lastIndex - pending.size() + 1; index <= lastIndex; index++) {
+                candidates.add(formatFinalUsername(baseUsername, index));
+            }
+
+            Set<String> taken = reserveAll(candidates);
+            List<Integer> stillPending = new ArrayList<>();
+            for (int k = 0; k < candidates.size(); k++) {
+                if (taken.contains(candidates.get(k))) {
+                    stillPending.add(pending.get(k));
+                } else {
+                    usernames[pending.get(k)] = candidates.get(k);
+                }
+            }
+            if (stillPending.isEmpty()) {
+                return List.of(usernames);
+            }
+
+            logger.warn("Usernames {} are already taken, allocating replacements (attempt {})", taken, attempt);
+            pending = stillPending;
+        }
+
+        throw new UsernameAllocationException(baseUsername);
     }
 
-    private String formatBaseUsername(String firstName, String lastName) {
-        return (firstName.trim() + "." + lastName.trim()).toLowerCase();
+    /**
+     * Bulk variant of {@link #reserve}: locks all candidates in sorted order and returns the ones already taken.
+     */
+    private Set<String> reserveAll(List<String> candidates) {
+        List<String> sortedCandidates = candidates.stream().sorted().toList();
+        entityManager.createNativeQuery(LOCK_USERNAMES_SQL)
+                .setParameter("usernames", sortedCandidates)
+                .getSingleResult();
+        return ((List<?>) entityManager.createNativeQuery(EXISTING_USERNAMES_SQL)
+                .setParameter("usernames", sortedCandidates)
+                .getResultList()).stream()
+                .map(String.class::cast)
+                .collect(Collectors.toSet());
     }
 
-    private Set<Integer> extractUsedIndexes(Set<String> existingUsernames, String baseUsername) {
-        Pattern pattern = Pattern.compile("^" + Pattern.quote(baseUsername) + "(\\d*)$");
+    /**
+     * Holds the candidate's advisory lock until the surrounding transaction ends, then checks it is still free.
+     * The lock must be taken before the check, so the check's snapshot sees any competing insert that committed.
+     */
+    private boolean reserve(String candidate) {
+        entityManager.createNativeQuery(LOCK_USERNAME_SQL)
+                .setParameter("username", candidate)
+                .getSingleResult();
 
-        return existingUsernames.stream()
-                .map(name -> parseIndexFromUsername(pattern, name))
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
+        return !Boolean.TRUE.equals(entityManager.createNativeQuery(USERNAME_EXISTS_SQL)
+                .setParameter("username", candidate)
+                .getSingleResult());
     }
 
-    private Integer parseIndexFromUsername(Pattern pattern, String username) {
-        Matcher matcher = pattern.matcher(username);
-        if (matcher.matches()) {
-            return matcher.group(1).isEmpty() ? 0 : Integer.parseInt(matcher.group(1));
+    public String formatBaseUsername(String firstName, String lastName) {
+        if (firstName == null || lastName == null || firstName.trim().isEmpty() || lastName.trim().isEmpty()) {
+            throw new IllegalArgumentException("First name and last name cannot be null");
         }
-        return null;
+        return (firstName.trim() + "." + lastName.trim()).toLowerCase();
     }
 
-    private int calculateNextIndex(Set<Integer> usedIndexes) {
-        return usedIndexes.isEmpty() ? 0 : usedIndexes.stream().max(Integer::compareTo).orElse(0) + 1;
+    /**
+     * Advances the counter of the base name by {@code count} and returns the last reserved index.
+     */
+    private int reserveIndexes(String baseUsername, int count) {
+        List<?> updated = entityManager.createNativeQuery(NEXT_INDEX_SQL)
+                .setParameter("baseUsername", baseUsername)
+                .setParameter("count", count)
+                .getResultList();
+        if (!updated.isEmpty()) {
+            return ((Number) updated.get(0)).intValue();
+        }
+
+        int maxUsedIndex = ((Number) entityManager.createNativeQuery(MAX_USED_INDEX_SQL)
+                .setParameter("baseUsername", baseUsername)
+                .setParameter("lowerBound", baseUsername)
+                .setParameter("upperBound", baseUsername + ":")
+                .getSingleResult()).intValue();
+        logger.debug("Seeding username sequence for {} after index {}", baseUsername, maxUsedIndex);
+
+        return ((Number) entityManager.createNativeQuery(SEED_INDEX_SQL)
+                .setParameter("baseUsername", baseUsername)
+                .setParameter("lastIndex", maxUsedIndex + count)
+                .setParameter("count", count)
+                .getSingleResult()).intValue();
     }
 
     private String formatFinalUsername(String baseUsername, int nextIndex) {
         return nextIndex == 0 ? baseUsername : baseUsername + nextIndex;
     }
-
-    private Set<String> getAllUsernames() {
-        TypedQuery<String> query = entityManager.createQuery(
-                "SELECT u.username FROM User u", String.class);
-        return query.getResultStream().collect(Collectors.toSet());
-    }
-}
\ No newline at end of file
+}
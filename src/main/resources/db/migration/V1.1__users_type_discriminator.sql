@@ -0,0 +1,19 @@
+ALTER TABLE users
+    ADD COLUMN user_type VARCHAR(31);
+
+UPDATE users u
+SET user_type = 'TRAINEE'
+WHERE EXISTS (SELECT 1 FROM trainees t WHERE t.user_id = u.user_id);
+
+UPDATE users u
+SET user_type = 'TRAINER'
+WHERE EXISTS (SELECT 1 FROM trainers t WHERE t.user_id = u.user_id);
+
+UPDATE users
+SET user_type = 'USER'
+WHERE user_type IS NULL;
+
+ALTER TABLE users
+    ALTER COLUMN user_type SET NOT NULL;
+
+CREATE UNIQUE INDEX idx_users_username_credentials ON users (username) INCLUDE (user_id, password, user_type);
@@ -0,0 +1,7 @@
+CREATE TABLE username_sequences
+(
+    base_username VARCHAR(255) PRIMARY KEY,
+    last_index    INT NOT NULL
+);
+
+CREATE INDEX idx_users_username_c ON users (username COLLATE "C");
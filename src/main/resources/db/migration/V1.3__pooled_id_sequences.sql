@@ -0,0 +1,9 @@
+CREATE SEQUENCE user_seq INCREMENT BY 50;
+SELECT setval('user_seq', COALESCE((SELECT MAX(user_id) FROM users), 0) + 50, false);
+ALTER TABLE users
+    ALTER COLUMN user_id DROP DEFAULT;
+
+CREATE SEQUENCE training_seq INCREMENT BY 50;
+SELECT setval('training_seq', COALESCE((SELECT MAX(training_id) FROM trainings), 0) + 50, false);
+ALTER TABLE trainings
+    ALTER COLUMN training_id DROP DEFAULT;
@@ -0,0 +1,3 @@
+CREATE INDEX idx_trainings_trainee_date ON trainings (trainee_id, training_date);
+CREATE INDEX idx_trainings_trainer_date ON trainings (trainer_id, training_date);
+CREATE INDEX idx_trainings_training_type ON trainings (training_type_id);
@@ -0,0 +1,5 @@
+DROP INDEX idx_trainings_trainee_date;
+DROP INDEX idx_trainings_trainer_date;
+
+CREATE INDEX idx_trainings_trainee_date ON trainings (trainee_id, training_date DESC, training_id DESC);
+CREATE INDEX idx_trainings_trainer_date ON trainings (trainer_id, training_date DESC, training_id DESC);
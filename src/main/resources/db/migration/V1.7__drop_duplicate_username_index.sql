@@ -0,0 +1,3 @@
+-- The unique covering index idx_users_username_credentials (V1.1) already enforces username uniqueness,
+-- so the index behind the original UNIQUE constraint only doubled the write cost.
+ALTER TABLE users DROP CONSTRAINT users_username_key;
@@ -0,0 +1,79 @@
+package sports.center.com.util.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import sports.center.com.cache.CredentialCache;
+import sports.center.com.security.AuthenticatedUser;
+import sports.center.com.security.UserRole;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CredentialCacheTest {
+    private static final AuthenticatedUser PRINCIPAL = new AuthenticatedUser(1L, "john.doe", UserRole.TRAINEE);
+
+    private MeterRegistry meterRegistry;
+    private CredentialCache credentialCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        credentialCache = new CredentialCache(meterRegistry, 100, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void get_CachedCredential_ShouldCountHit() {
+        credentialCache.put("john.doe", "password123", PRINCIPAL);
+
+        assertEquals(PRINCIPAL, credentialCache.get("john.doe", "password123").orElseThrow());
+        assertEquals(1.0, meterRegistry.counter("auth_credential_cache_requests_total", "result", "hit").count());
+    }
+
+    @Test
+    void get_UnknownUser_ShouldCountMiss() {
+        assertTrue(credentialCache.get("john.doe", "password123").isEmpty());
+        assertEquals(1.0, meterRegistry.counter("auth_credential_cache_requests_total", "result", "miss").count());
+    }
+
+    @Test
+    void get_WrongPassword_ShouldNotMatchCachedCredential() {
+        credentialCache.put("john.doe", "password123", PRINCIPAL);
+
+        assertTrue(credentialCache.get("john.doe", "wrongPass").isEmpty());
+    }
+
+    @Test
+    void invalidate_ShouldDropCachedCredential() {
+        credentialCache.put("john.doe", "password123", PRINCIPAL);
+
+        credentialCache.invalidate("john.doe");
+
+        assertTrue(credentialCache.get("john.doe", "password123").isEmpty());
+        assertEquals(0, credentialCache.size());
+    }
+
+    @Test
+    void get_ExpiredEntry_ShouldBeEvicted() {
+        CredentialCache expiringCache = new CredentialCache(meterRegistry, 100, Duration.ZERO);
+        expiringCache.put("john.doe", "password123", PRINCIPAL);
+
+        assertTrue(expiringCache.get("john.doe", "password123").isEmpty());
+        assertEquals(0, expiringCache.size());
+        assertEquals(1.0, meterRegistry.counter("auth_credential_cache_evictions_total").count());
+    }
+
+    @Test
+    void put_FullCache_ShouldStayBounded() {
+        CredentialCache smallCache = new CredentialCache(meterRegistry, 10, Duration.ofMinutes(5));
+
+        for (int i = 0; i < 50; i++) {
+            smallCache.put("user" + i, "password" + i, new AuthenticatedUser((long) i, "user" + i, UserRole.TRAINER));
+        }
+
+        assertTrue(smallCache.size() <= 10);
+        assertTrue(smallCache.get("user49", "password49").isPresent());
+    }
+}
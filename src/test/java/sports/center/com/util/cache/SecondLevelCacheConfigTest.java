@@ -0,0 +1,52 @@
+package sports.center.com.util.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import sports.center.com.cache.CacheRegions;
+import sports.center.com.config.SecondLevelCacheConfig;
+
+import javax.cache.CacheManager;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SecondLevelCacheConfigTest {
+    private final SecondLevelCacheConfig config = new SecondLevelCacheConfig();
+    private final CacheManager cacheManager = config.hibernateCacheManager();
+
+    @AfterEach
+    void tearDown() {
+        cacheManager.close();
+    }
+
+    @Test
+    void hibernateCacheManager_ShouldPreconfigureEveryRegion() {
+        for (String region : CacheRegions.ALL) {
+            assertNotNull(cacheManager.getCache(region), region);
+        }
+    }
+
+    @Test
+    void secondLevelCacheCustomizer_ShouldHandHibernateTheSameManager() {
+        Map<String, Object> properties = new HashMap<>();
+
+        config.secondLevelCacheCustomizer(cacheManager).customize(properties);
+
+        assertSame(cacheManager, properties.get(ConfigSettings.CACHE_MANAGER));
+    }
+
+    @Test
+    void secondLevelCacheMetrics_ShouldRegisterMetersForEveryRegion() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        config.secondLevelCacheMetrics(cacheManager).bindTo(meterRegistry);
+
+        for (String region : CacheRegions.ALL) {
+            assertFalse(meterRegistry.find("cache.gets").tags("cache", region, "layer", "hibernate")
+                    .functionCounters().isEmpty(), region);
+        }
+    }
+}
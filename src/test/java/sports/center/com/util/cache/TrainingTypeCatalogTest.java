@@ -0,0 +1,102 @@
+package sports.center.com.util.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import sports.center.com.cache.TrainingTypeCatalog;
+import sports.center.com.model.TrainingType;
+import sports.center.com.repository.TrainingTypeRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TrainingTypeCatalogTest {
+
+    @Mock
+    private TrainingTypeRepository trainingTypeRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TrainingTypeCatalog catalog;
+    private TrainingType strength;
+
+    @BeforeEach
+    void setUp() {
+        strength = TrainingType.builder().id(1L).trainingTypeName("Strength").build();
+        meterRegistry = new SimpleMeterRegistry();
+        catalog = new TrainingTypeCatalog(trainingTypeRepository, meterRegistry);
+    }
+
+    @Test
+    void findReferenceByName_ShouldResolveFromSnapshotWithoutQuery() {
+        when(trainingTypeRepository.findAll()).thenReturn(List.of(strength));
+        when(trainingTypeRepository.getReferenceById(1L)).thenReturn(strength);
+        catalog.refresh();
+
+        assertSame(strength, catalog.findReferenceByName("Strength").orElseThrow());
+        assertTrue(catalog.findReferenceByName("Yoga").isEmpty());
+
+        verify(trainingTypeRepository, times(1)).findAll();
+        assertEquals(1.0, meterRegistry.counter("training_type_catalog_requests_total", "result", "hit").count());
+        assertEquals(1.0, meterRegistry.counter("training_type_catalog_requests_total", "result", "miss").count());
+    }
+
+    @Test
+    void findReferenceById_UnknownId_ShouldNotCreateReference() {
+        when(trainingTypeRepository.findAll()).thenReturn(List.of(strength));
+        catalog.refresh();
+
+        assertEquals(Optional.empty(), catalog.findReferenceById(99L));
+        assertEquals(Optional.empty(), catalog.findReferenceById(null));
+        verify(trainingTypeRepository, never()).getReferenceById(any());
+    }
+
+    @Test
+    void refresh_ShouldSwapInNewTypes() {
+        TrainingType yoga = TrainingType.builder().id(2L).trainingTypeName("Yoga").build();
+        when(trainingTypeRepository.findAll()).thenReturn(List.of(strength)).thenReturn(List.of(strength, yoga));
+
+        catalog.refresh();
+        assertEquals(1, catalog.size());
+
+        catalog.refresh();
+        assertEquals(2, catalog.size());
+        assertEquals("Yoga", catalog.findAll().get(1).getTrainingTypeName());
+    }
+
+    @Test
+    void getETag_ShouldChangeOnlyWhenVersionsChange() {
+        TrainingType renamed = TrainingType.builder().id(1L).trainingTypeName("Power").version(1L).build();
+        strength.setVersion(0L);
+        when(trainingTypeRepository.findAll())
+                .thenReturn(List.of(strength))
+                .thenReturn(List.of(strength))
+                .thenReturn(List.of(renamed));
+
+        catalog.refresh();
+        String initial = catalog.getETag();
+        catalog.refresh();
+        assertEquals(initial, catalog.getETag());
+        catalog.refresh();
+        assertNotEquals(initial, catalog.getETag());
+    }
+
+    @Test
+    void refresh_DatabaseUnavailable_ShouldKeepPreviousSnapshot() {
+        when(trainingTypeRepository.findAll()).thenReturn(List.of(strength))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+
+        catalog.refresh();
+        catalog.refresh();
+
+        assertEquals(1, catalog.size());
+        assertNotNull(catalog.getLoadedAt());
+    }
+}
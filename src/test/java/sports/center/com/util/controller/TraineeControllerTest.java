@@ -10,6 +10,8 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import sports.center.com.controller.TraineeController;
+import sports.center.com.dto.registration.BatchRegistrationResponseDto;
+import sports.center.com.dto.registration.RegistrationResultDto;
 import sports.center.com.dto.trainee.TraineeRequestDto;
 import sports.center.com.dto.trainee.TraineeResponseDto;
 import sports.center.com.service.AuthService;
@@ -19,11 +21,17 @@ import sports.center.com.service.TransactionService;
 import java.text.SimpleDateFormat;
 import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -78,6 +86,26 @@ class TraineeControllerTest {
                 .andExpect(status().isCreated());
     }
 
+    @Test
+    void shouldRegisterTraineesInBatch() throws Exception {
+        BatchRegistrationResponseDto responseDto = BatchRegistrationResponseDto.builder()
+                .created(1)
+                .failed(1)
+                .results(List.of(
+                        RegistrationResultDto.builder().index(0).username("john.doe").password("password12").build(),
+                        RegistrationResultDto.builder().index(1).error("First name is mandatory").build()))
+                .build();
+
+        when(traineeService.createTrainees(anyList())).thenReturn(responseDto);
+
+        mockMvc.perform(post("/trainee/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"firstName\":\"John\",\"lastName\":\"Doe\"},{\"lastName\":\"Doe\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.results[1].error").value("First name is mandatory"));
+    }
+
     @Test
     void shouldGetTraineeProfile() throws Exception {
         TraineeResponseDto responseDto = TraineeResponseDto.builder()
@@ -90,10 +118,26 @@ class TraineeControllerTest {
                 .trainers(Collections.emptyList())
                 .build();
 
+        when(traineeService.getTraineeProfileETag()).thenReturn("trainee-3-1-2");
         when(traineeService.getTraineeProfile()).thenReturn(responseDto);
 
         mockMvc.perform(get("/trainee/username"))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"trainee-3-1-2\""))
+                .andExpect(header().string("Cache-Control", "no-cache, private"))
+                .andExpect(header().string("Vary", "Authorization"));
+    }
+
+    @Test
+    void shouldReturnNotModifiedWhenTraineeProfileETagMatches() throws Exception {
+        when(traineeService.getTraineeProfileETag()).thenReturn("trainee-3-1-2");
+
+        mockMvc.perform(get("/trainee/username").header("If-None-Match", "\"trainee-3-1-2\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("Vary", "Authorization"))
+                .andExpect(content().string(""));
+
+        verify(traineeService, never()).getTraineeProfile();
     }
 
     @Test
@@ -19,9 +19,12 @@ import sports.center.com.service.TransactionService;
 import java.util.Collections;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -97,10 +100,23 @@ class TrainerControllerTest {
                 .trainees(Collections.emptyList())
                 .build();
 
+        when(trainerService.getTrainerProfileETag()).thenReturn("trainer-5-2-4");
         when(trainerService.getTrainerProfile()).thenReturn(responseDto);
 
         mockMvc.perform(get("/trainer/username"))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"trainer-5-2-4\""))
+                .andExpect(header().string("Vary", "Authorization"));
+    }
+
+    @Test
+    void shouldReturnNotModifiedWhenTrainerProfileETagMatches() throws Exception {
+        when(trainerService.getTrainerProfileETag()).thenReturn("trainer-5-2-4");
+
+        mockMvc.perform(get("/trainer/username").header("If-None-Match", "\"trainer-5-2-4\""))
+                .andExpect(status().isNotModified());
+
+        verify(trainerService, never()).getTrainerProfile();
     }
 
     @Test
@@ -11,6 +11,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import sports.center.com.controller.TrainingController;
 import sports.center.com.dto.trainer.TrainerResponseDto;
+import sports.center.com.dto.training.TrainingPageDto;
 import sports.center.com.dto.training.TrainingResponseDto;
 import sports.center.com.dto.training.TrainingTypeResponseDto;
 import sports.center.com.service.TrainingService;
@@ -21,9 +22,15 @@ import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -95,10 +102,28 @@ class TrainingControllerTest {
                         .param("fromDate", "2025-02-01")
                         .param("toDate", "2025-03-01")
                         .param("trainerName", "trainer1")
-                        .param("trainingType", "Cardio"))
+                        .param("trainingType", "Cardio")
+                        .param("unpaged", "true"))
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void shouldGetTraineeTrainingsPage() throws Exception {
+        TrainingPageDto page = TrainingPageDto.builder()
+                .trainings(List.of(TrainingResponseDto.builder().trainerUsername("trainer1").trainingName("Cardio").build()))
+                .nextCursor("next")
+                .build();
+
+        when(trainingService.getTraineeTrainings(any(), any(), any(), any(), eq("current"), eq(20))).thenReturn(page);
+
+        mockMvc.perform(get("/training/trainee")
+                        .param("limit", "20")
+                        .param("cursor", "current"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(jsonPath("$.trainings[0].trainingName").value("Cardio"));
+    }
+
     @Test
     void shouldGetTrainerTrainings() throws Exception {
         List<TrainingResponseDto> trainings = List.of(
@@ -117,7 +142,8 @@ class TrainingControllerTest {
         mockMvc.perform(get("/training/trainer")
                         .param("fromDate", "2025-02-01")
                         .param("toDate", "2025-03-01")
-                        .param("trainerName", "trainee1"))
+                        .param("trainerName", "trainee1")
+                        .param("unpaged", "true"))
                 .andExpect(status().isOk());
     }
 
@@ -128,9 +154,31 @@ class TrainingControllerTest {
                 new TrainingTypeResponseDto(2L, "Strength")
         );
 
+        when(trainingService.getTrainingTypesETag()).thenReturn("types-0a1b2c3d");
         when(trainingService.getTrainingType()).thenReturn(trainingTypes);
 
         mockMvc.perform(get("/training/training-types"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"types-0a1b2c3d\""))
+                .andExpect(header().string("Cache-Control", "max-age=300, private"));
+    }
+
+    @Test
+    void shouldReturnNotModifiedWhenTrainingTypesETagMatches() throws Exception {
+        when(trainingService.getTrainingTypesETag()).thenReturn("types-0a1b2c3d");
+
+        mockMvc.perform(get("/training/training-types").header("If-None-Match", "\"types-0a1b2c3d\""))
+                .andExpect(status().isNotModified());
+
+        verify(trainingService, never()).getTrainingType();
+    }
+
+    @Test
+    void shouldStreamTraineeTrainings() throws Exception {
+        mockMvc.perform(get("/training/trainee/stream")
+                        .param("trainerName", "trainer1"))
                 .andExpect(status().isOk());
+
+        verify(trainingService).exportTraineeTrainings(isNull(), isNull(), eq("trainer1"), isNull(), any());
     }
 }
@@ -0,0 +1,81 @@
+package sports.center.com.util.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import sports.center.com.datasource.ConnectionPoolEndpoint;
+
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ConnectionPoolEndpointTest {
+
+    @Mock
+    private ObjectProvider<HikariDataSource> dataSources;
+
+    @Mock
+    private HikariDataSource dataSource;
+
+    @Mock
+    private HikariPoolMXBean pool;
+
+    @InjectMocks
+    private ConnectionPoolEndpoint endpoint;
+
+    @Test
+    void pools_ThreadsWaiting_ShouldReportSaturated() {
+        stubPool(10, 10, 0, 3);
+
+        Map<String, Object> primary = primaryPool();
+
+        assertEquals(1.0, primary.get("saturation"));
+        assertEquals(3, primary.get("pending"));
+        assertEquals("SATURATED", primary.get("status"));
+    }
+
+    @Test
+    void pools_ModerateUsage_ShouldReportOk() {
+        stubPool(10, 4, 6, 0);
+
+        Map<String, Object> primary = primaryPool();
+
+        assertEquals(0.4, primary.get("saturation"));
+        assertEquals(6, primary.get("idle"));
+        assertEquals("OK", primary.get("status"));
+    }
+
+    @Test
+    void pools_PoolNotStarted_ShouldReportNotStarted() {
+        when(dataSources.orderedStream()).thenReturn(Stream.of(dataSource));
+        when(dataSource.getPoolName()).thenReturn("primary");
+        when(dataSource.getMaximumPoolSize()).thenReturn(10);
+        when(dataSource.getHikariPoolMXBean()).thenReturn(null);
+
+        assertEquals("NOT_STARTED", primaryPool().get("status"));
+    }
+
+    private void stubPool(int max, int active, int idle, int pending) {
+        when(dataSources.orderedStream()).thenReturn(Stream.of(dataSource));
+        when(dataSource.getPoolName()).thenReturn("primary");
+        when(dataSource.getMaximumPoolSize()).thenReturn(max);
+        when(dataSource.getHikariPoolMXBean()).thenReturn(pool);
+        when(pool.getActiveConnections()).thenReturn(active);
+        when(pool.getIdleConnections()).thenReturn(idle);
+        when(pool.getTotalConnections()).thenReturn(active + idle);
+        when(pool.getThreadsAwaitingConnection()).thenReturn(pending);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> primaryPool() {
+        return (Map<String, Object>) endpoint.pools().get("primary");
+    }
+}
@@ -0,0 +1,72 @@
+package sports.center.com.util.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import sports.center.com.datasource.ReplicaLagMonitor;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaLagMonitorTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReplicaLagMonitor lagMonitor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        lagMonitor = new ReplicaLagMonitor(jdbcTemplate, Duration.ofSeconds(5), meterRegistry);
+    }
+
+    @Test
+    void isReplicaUsable_BeforeFirstCheck_ShouldBeFalse() {
+        assertFalse(lagMonitor.isReplicaUsable());
+    }
+
+    @Test
+    void checkLag_WithinLimit_ShouldMarkReplicaUsable() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Number.class))).thenReturn(1200.0);
+
+        lagMonitor.checkLag();
+
+        assertTrue(lagMonitor.isReplicaUsable());
+        assertEquals(1.2, meterRegistry.get("datasource_replica_lag_seconds").gauge().value());
+    }
+
+    @Test
+    void checkLag_TooFarBehind_ShouldMarkReplicaUnusable() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Number.class))).thenReturn(60_000L);
+
+        lagMonitor.checkLag();
+
+        assertFalse(lagMonitor.isReplicaUsable());
+    }
+
+    @Test
+    void checkLag_QueryFails_ShouldMarkReplicaUnusable() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Number.class))).thenReturn(0L)
+                .thenThrow(new DataAccessResourceFailureException("replica down"));
+
+        lagMonitor.checkLag();
+        assertTrue(lagMonitor.isReplicaUsable());
+
+        lagMonitor.checkLag();
+        assertFalse(lagMonitor.isReplicaUsable());
+    }
+}
@@ -6,19 +6,26 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.method.annotation.ExceptionHandlerMethodResolver;
 import sports.center.com.exception.GlobalExceptionHandler;
 import sports.center.com.exception.exceptions.BaseValidationException;
 import sports.center.com.exception.exceptions.EmptyTrainerListException;
 import sports.center.com.exception.exceptions.TraineeNotFoundException;
 import sports.center.com.exception.exceptions.UnauthorizedException;
+import sports.center.com.model.Trainee;
 
+import java.lang.reflect.Method;
+import java.sql.SQLException;
 import java.util.Map;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -48,6 +55,33 @@ class GlobalExceptionHandlerTest {
         assertEquals("Invalid input", response.getBody().get("error"));
     }
 
+    @Test
+    void shouldMapUniqueViolationToConflict() {
+        DataIntegrityViolationException exception = new DataIntegrityViolationException("duplicate key value",
+                new SQLException("duplicate key value violates unique constraint", "23505"));
+        ResponseEntity<Map<String, String>> response = globalExceptionHandler.handleDataIntegrityViolation(exception);
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+    }
+
+    @Test
+    void shouldMapOtherIntegrityViolationsToBadRequest() {
+        DataIntegrityViolationException exception = new DataIntegrityViolationException("violates foreign key",
+                new SQLException("insert or update violates foreign key constraint", "23503"));
+        ResponseEntity<Map<String, String>> response = globalExceptionHandler.handleDataIntegrityViolation(exception);
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void shouldMapOptimisticLockingFailureToConflict() throws Exception {
+        ObjectOptimisticLockingFailureException exception =
+                new ObjectOptimisticLockingFailureException(Trainee.class, 1L);
+        Method handler = new ExceptionHandlerMethodResolver(GlobalExceptionHandler.class).resolveMethod(exception);
+
+        assertNotNull(handler);
+        ResponseEntity<?> response = (ResponseEntity<?>) handler.invoke(globalExceptionHandler, exception);
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+    }
+
     @Test
     void shouldHandleValidationException() {
         MethodArgumentNotValidException exception = mock(MethodArgumentNotValidException.class);
@@ -6,7 +6,7 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.boot.actuate.health.Health;
 import sports.center.com.healthIndicator.TrainingTypeHealthIndicator;
-import sports.center.com.repository.TrainingTypeRepository;
+import sports.center.com.cache.TrainingTypeCatalog;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.verify;
@@ -15,37 +15,37 @@ import static org.mockito.Mockito.when;
 class TrainingTypeHealthIndicatorTest {
 
     @Mock
-    private TrainingTypeRepository trainingTypeRepository;
+    private TrainingTypeCatalog trainingTypeCatalog;
 
     private TrainingTypeHealthIndicator trainingTypeHealthIndicator;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        trainingTypeHealthIndicator = new TrainingTypeHealthIndicator(trainingTypeRepository);
+        trainingTypeHealthIndicator = new TrainingTypeHealthIndicator(trainingTypeCatalog);
     }
 
     @Test
     void testHealth_TrainingTypesAvailable() {
-        when(trainingTypeRepository.count()).thenReturn(5L);
+        when(trainingTypeCatalog.size()).thenReturn(5);
 
         Health health = trainingTypeHealthIndicator.health();
 
         assertEquals("UP", health.getStatus().getCode());
         assertEquals("Available", health.getDetails().get("trainingTypes"));
 
-        verify(trainingTypeRepository).count();
+        verify(trainingTypeCatalog).size();
     }
 
     @Test
     void testHealth_TrainingTypesNotFound() {
-        when(trainingTypeRepository.count()).thenReturn(0L);
+        when(trainingTypeCatalog.size()).thenReturn(0);
 
         Health health = trainingTypeHealthIndicator.health();
 
         assertEquals("DOWN", health.getStatus().getCode());
         assertEquals("Not Found", health.getDetails().get("trainingTypes"));
 
-        verify(trainingTypeRepository).count();
+        verify(trainingTypeCatalog).size();
     }
 }
\ No newline at end of file
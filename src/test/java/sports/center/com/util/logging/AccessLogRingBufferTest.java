@@ -0,0 +1,76 @@
+package sports.center.com.util.logging;
+
+import org.junit.jupiter.api.Test;
+import sports.center.com.logging.AccessLogRecord;
+import sports.center.com.logging.AccessLogRingBuffer;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccessLogRingBufferTest {
+
+    @Test
+    void offer_ShouldRoundCapacityUpAndRejectWhenFull() {
+        AccessLogRingBuffer buffer = new AccessLogRingBuffer(3);
+
+        assertEquals(4, buffer.capacity());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(record(String.valueOf(i))));
+        }
+        assertFalse(buffer.offer(record("overflow")));
+        assertEquals(4, buffer.size());
+    }
+
+    @Test
+    void poll_ShouldReturnRecordsInOrderAndReuseSlots() {
+        AccessLogRingBuffer buffer = new AccessLogRingBuffer(2);
+
+        for (int round = 0; round < 5; round++) {
+            buffer.offer(record("a" + round));
+            buffer.offer(record("b" + round));
+            assertEquals("a" + round, buffer.poll().transactionId());
+            assertEquals("b" + round, buffer.poll().transactionId());
+        }
+        assertNull(buffer.poll());
+    }
+
+    @Test
+    void offer_ConcurrentProducers_ShouldNotLoseOrDuplicateRecords() throws Exception {
+        int producers = 8;
+        int perProducer = 5000;
+        AccessLogRingBuffer buffer = new AccessLogRingBuffer(producers * perProducer);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < perProducer; i++) {
+                    buffer.offer(record(producer + "-" + i));
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        Set<String> seen = new HashSet<>();
+        AccessLogRecord record;
+        while ((record = buffer.poll()) != null) {
+            assertTrue(seen.add(record.transactionId()));
+        }
+        assertEquals(producers * perProducer, seen.size());
+    }
+
+    private AccessLogRecord record(String transactionId) {
+        return new AccessLogRecord(0L, transactionId, "GET", "/trainee/username", 200, 0L, null, null);
+    }
+}
@@ -0,0 +1,74 @@
+package sports.center.com.util.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import sports.center.com.logging.AccessLogRecord;
+import sports.center.com.logging.AccessLogWriter;
+import sports.center.com.logging.CorrelationIdFilter;
+import sports.center.com.logging.LogRedactor;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AccessLogWriterTest {
+
+    @Test
+    void submit_BufferFull_ShouldDropAndCountRecords() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AccessLogWriter writer = new AccessLogWriter(meterRegistry, 2);
+
+        for (int i = 0; i < 5; i++) {
+            writer.submit(new AccessLogRecord(0L, "tx-" + i, "GET", "/trainee/username", 200, 1_000_000L, null, null));
+        }
+
+        assertEquals(3.0, meterRegistry.counter("access_log_dropped_total").count());
+        assertEquals(2, writer.drainPending());
+        assertEquals(0, writer.drainPending());
+    }
+
+    @Test
+    void drainPending_ShouldLogWithRequestTransactionIdAndTimestamp() {
+        Logger accessLog = (Logger) LoggerFactory.getLogger("ACCESS_LOG");
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        accessLog.addAppender(appender);
+        try {
+            AccessLogWriter writer = new AccessLogWriter(new SimpleMeterRegistry(), 4);
+            writer.submit(new AccessLogRecord(0L, "tx-1", "GET", "/trainee/username", 200, 1_000_000L, null, null));
+
+            writer.drainPending();
+
+            ILoggingEvent event = appender.list.get(0);
+            assertEquals("tx-1", event.getMDCPropertyMap().get(CorrelationIdFilter.MDC_KEY));
+            assertTrue(event.getFormattedMessage().startsWith("1970-01-01T00:00:00Z [GET] /trainee/username"));
+            assertNull(MDC.get(CorrelationIdFilter.MDC_KEY));
+        } finally {
+            accessLog.detachAppender(appender);
+        }
+    }
+
+    @Test
+    void redactHeaders_ShouldMaskCredentials() {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getHeaderNames()).thenReturn(Collections.enumeration(List.of("Authorization", "Accept")));
+        when(request.getHeader("Accept")).thenReturn("application/json");
+
+        assertEquals("Authorization: ***; Accept: application/json; ", LogRedactor.redactHeaders(request));
+    }
+
+    @Test
+    void redactBody_ShouldMaskPasswordFields() {
+        assertEquals("{\"username\":\"john.doe\",\"newPassword\":\"***\"}",
+                LogRedactor.redactBody("{\"username\":\"john.doe\",\"newPassword\":\"p\\\"ss\"}"));
+    }
+}
@@ -0,0 +1,89 @@
+package sports.center.com.util.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.MDC;
+import sports.center.com.logging.CorrelationIdFilter;
+import sports.center.com.logging.MdcTaskDecorator;
+import sports.center.com.service.TransactionService;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CorrelationIdFilterTest {
+
+    @Mock
+    private HttpServletRequest request;
+
+    @Mock
+    private HttpServletResponse response;
+
+    @Mock
+    private FilterChain filterChain;
+
+    @Mock
+    private TransactionService transactionService;
+
+    @InjectMocks
+    private CorrelationIdFilter correlationIdFilter;
+
+    @Test
+    void shouldReuseInboundTransactionIdAndEchoIt() throws ServletException, IOException {
+        when(request.getHeader("X-Transaction-Id")).thenReturn("client-42");
+        AtomicReference<String> inChain = new AtomicReference<>();
+        doAnswer(invocation -> {
+            inChain.set(MDC.get("transactionId"));
+            return null;
+        }).when(filterChain).doFilter(request, response);
+
+        correlationIdFilter.doFilter(request, response, filterChain);
+
+        assertEquals("client-42", inChain.get());
+        assertNull(MDC.get("transactionId"));
+        verify(request).setAttribute("X-Transaction-Id", "client-42");
+        verify(response).setHeader("X-Transaction-Id", "client-42");
+        verifyNoInteractions(transactionService);
+    }
+
+    @Test
+    void shouldGenerateIdWhenInboundIdIsMalformed() throws ServletException, IOException {
+        when(request.getHeader("X-Transaction-Id")).thenReturn("bad id\nforged log line");
+        when(transactionService.generateTransactionId()).thenReturn("0190a1b2c3d4e5f6-1a2b3c4d");
+
+        correlationIdFilter.doFilter(request, response, filterChain);
+
+        verify(transactionService, times(1)).generateTransactionId();
+        verify(response).setHeader("X-Transaction-Id", "0190a1b2c3d4e5f6-1a2b3c4d");
+    }
+
+    @Test
+    void mdcTaskDecorator_ShouldPropagateTransactionIdToWorkerThread() throws Exception {
+        AtomicReference<String> inTask = new AtomicReference<>();
+        MDC.put("transactionId", "tx-1");
+        Runnable task = new MdcTaskDecorator().decorate(() -> inTask.set(MDC.get("transactionId")));
+        MDC.remove("transactionId");
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CompletableFuture.runAsync(task, executor).get();
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals("tx-1", inTask.get());
+    }
+}
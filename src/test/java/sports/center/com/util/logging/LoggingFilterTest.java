@@ -2,23 +2,26 @@ package sports.center.com.util.logging;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.web.util.ContentCachingResponseWrapper;
+import sports.center.com.logging.AccessLogRecord;
+import sports.center.com.logging.AccessLogWriter;
+import sports.center.com.logging.CorrelationIdFilter;
 import sports.center.com.logging.LoggingFilter;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.lang.reflect.Method;
-import java.util.Collections;
-import java.util.UUID;
+import java.nio.charset.StandardCharsets;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,69 +34,97 @@ class LoggingFilterTest {
     private HttpServletResponse response;
 
     @Mock
-    private ContentCachingResponseWrapper wrappedResponse;
+    private FilterChain filterChain;
 
     @Mock
-    private FilterChain filterChain;
+    private AccessLogWriter accessLogWriter;
 
-    @InjectMocks
     private LoggingFilter loggingFilter;
 
     @BeforeEach
     void setUp() {
-        loggingFilter = new LoggingFilter();
-        lenient().when(request.getHeaderNames()).thenReturn(Collections.enumeration(Collections.emptyList()));
+        loggingFilter = new LoggingFilter(accessLogWriter, new String[]{"/trainee"}, 32, false);
         lenient().when(response.getStatus()).thenReturn(200);
-        lenient().when(wrappedResponse.getContentAsByteArray()).thenReturn("Response Body".getBytes());
     }
 
-
     @Test
-    void shouldAddTransactionIdIfNotPresent() throws ServletException, IOException {
-        when(request.getAttribute("X-Transaction-Id")).thenReturn(null);
+    void shouldTagRecordWithCorrelationId() throws ServletException, IOException {
+        when(request.getAttribute(CorrelationIdFilter.TRANSACTION_ID_ATTRIBUTE)).thenReturn("0190a1b2c3d4e5f6-1a2b3c4d");
 
         loggingFilter.doFilter(request, response, filterChain);
 
-        verify(request).setAttribute(eq("X-Transaction-Id"), anyString());
+        assertEquals("0190a1b2c3d4e5f6-1a2b3c4d", submittedRecord().transactionId());
+        verify(request, never()).setAttribute(anyString(), any());
     }
 
-
     @Test
-    void shouldUseExistingTransactionId() throws ServletException, IOException {
-        String existingTransactionId = UUID.randomUUID().toString();
-        when(request.getAttribute("X-Transaction-Id")).thenReturn(existingTransactionId);
+    void shouldNotWrapResponseOfRoutesWithoutBodyCapture() throws ServletException, IOException {
+        when(request.getRequestURI()).thenReturn("/training/trainee/stream");
 
         loggingFilter.doFilter(request, response, filterChain);
 
-        verify(request, never()).setAttribute(eq("X-Transaction-Id"), anyString());
+        verify(filterChain).doFilter(request, response);
+        assertNull(submittedRecord().body());
     }
 
-
     @Test
-    void shouldCaptureHeaders() throws Exception {
-        LoggingFilter loggingFilter = new LoggingFilter();
-        Method method = LoggingFilter.class.getDeclaredMethod("getHeaders", HttpServletRequest.class);
-        method.setAccessible(true);
-
-        when(request.getHeaderNames()).thenReturn(Collections.enumeration(Collections.singleton("Authorization")));
-        when(request.getHeader("Authorization")).thenReturn("Bearer token123");
-
-        String headers = (String) method.invoke(loggingFilter, request);
-
-        assertEquals("Authorization: Bearer token123; ", headers);
+    void shouldSubmitOneRecordPerRequestEvenWhenChainFails() throws ServletException, IOException {
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getRequestURI()).thenReturn("/trainer/username");
+        when(response.getStatus()).thenReturn(500);
+        doThrow(new ServletException("boom")).when(filterChain).doFilter(request, response);
+
+        assertThrows(ServletException.class, () -> loggingFilter.doFilter(request, response, filterChain));
+
+        AccessLogRecord record = submittedRecord();
+        assertEquals("GET", record.method());
+        assertEquals("/trainer/username", record.uri());
+        assertEquals(500, record.status());
+        assertNull(record.headers());
     }
 
     @Test
-    void shouldCaptureResponseBody() throws Exception {
-        LoggingFilter loggingFilter = new LoggingFilter();
-        Method method = LoggingFilter.class.getDeclaredMethod("getResponseBody", ContentCachingResponseWrapper.class);
-        method.setAccessible(true);
+    void shouldCaptureCappedAndRedactedBodyOfOptedInRoute() throws ServletException, IOException {
+        ByteArrayOutputStream client = new ByteArrayOutputStream();
+        when(request.getRequestURI()).thenReturn("/trainee");
+        when(response.getOutputStream()).thenReturn(servletOutputStream(client));
+        String body = "{\"password\":\"s3cr3t\",\"username\":\"john.doe.with.a.long.name\"}";
+        doAnswer(invocation -> {
+            HttpServletResponse wrapped = invocation.getArgument(1);
+            wrapped.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(filterChain).doFilter(eq(request), any());
 
-        when(wrappedResponse.getContentAsByteArray()).thenReturn("Test Response".getBytes());
+        loggingFilter.doFilter(request, response, filterChain);
 
-        String responseBody = (String) method.invoke(loggingFilter, wrappedResponse);
+        assertEquals(body, client.toString(StandardCharsets.UTF_8));
+        String logged = submittedRecord().body();
+        assertFalse(logged.contains("s3cr3t"));
+        assertTrue(logged.startsWith("{\"password\":\"***\""));
+        assertTrue(logged.endsWith("...(" + body.length() + " bytes)"));
+    }
 
-        assertEquals("Test Response", responseBody);
+    private AccessLogRecord submittedRecord() {
+        ArgumentCaptor<AccessLogRecord> captor = ArgumentCaptor.forClass(AccessLogRecord.class);
+        verify(accessLogWriter).submit(captor.capture());
+        return captor.getValue();
     }
 
+    private ServletOutputStream servletOutputStream(ByteArrayOutputStream target) {
+        return new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+                target.write(b);
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+        };
+    }
 }
@@ -0,0 +1,106 @@
+package sports.center.com.util.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CollectionStatistics;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import sports.center.com.metrics.HibernateStatisticsMetrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class HibernateStatisticsMetricsTest {
+    private static final String TRAINEE = "sports.center.com.model.Trainee";
+    private static final String TRAINEE_TRAINERS = "sports.center.com.model.Trainee.trainers";
+    private static final String QUERY = "SELECT t FROM Trainer t WHERE t.isActive = true";
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+    @Mock
+    private SessionFactory sessionFactory;
+    @Mock
+    private Statistics statistics;
+    @Mock
+    private EntityStatistics traineeStatistics;
+    @Mock
+    private CollectionStatistics trainersStatistics;
+    @Mock
+    private QueryStatistics queryStatistics;
+
+    private SimpleMeterRegistry meterRegistry;
+    private HibernateStatisticsMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getStatistics()).thenReturn(statistics);
+        when(statistics.getEntityNames()).thenReturn(new String[]{TRAINEE});
+        when(statistics.getEntityStatistics(TRAINEE)).thenReturn(traineeStatistics);
+        when(statistics.getCollectionRoleNames()).thenReturn(new String[]{TRAINEE_TRAINERS});
+        when(statistics.getCollectionStatistics(TRAINEE_TRAINERS)).thenReturn(trainersStatistics);
+        when(statistics.getQueries()).thenReturn(new String[0]);
+
+        meterRegistry = new SimpleMeterRegistry();
+        metrics = new HibernateStatisticsMetrics(entityManagerFactory, 1);
+        metrics.bindTo(meterRegistry);
+    }
+
+    @Test
+    void bindTo_ShouldLabelEntityAndCollectionCountersBySimpleName() {
+        when(traineeStatistics.getLoadCount()).thenReturn(12L);
+        when(trainersStatistics.getFetchCount()).thenReturn(7L);
+        when(statistics.getFlushCount()).thenReturn(3L);
+
+        assertEquals(12.0, meterRegistry.get("hibernate_entity_operations")
+                .tags("entity", "Trainee", "operation", "load").functionCounter().count());
+        assertEquals(7.0, meterRegistry.get("hibernate_collection_operations")
+                .tags("role", "Trainee.trainers", "operation", "fetch").functionCounter().count());
+        assertEquals(3.0, meterRegistry.get("hibernate_flushes").functionCounter().count());
+    }
+
+    @Test
+    void registerNewQueries_ShouldTrackExecutedQueriesUpToLimit() {
+        when(statistics.getQueries()).thenReturn(new String[]{QUERY, "SELECT tt FROM TrainingType tt"});
+        when(statistics.getQueryStatistics(QUERY)).thenReturn(queryStatistics);
+        when(queryStatistics.getExecutionCount()).thenReturn(4L);
+        when(queryStatistics.getExecutionTotalTime()).thenReturn(1500L);
+
+        metrics.registerNewQueries();
+
+        assertEquals(4.0, meterRegistry.get("hibernate_query_executions").tag("query", QUERY).functionCounter().count());
+        assertEquals(1.5, meterRegistry.get("hibernate_query_execution_seconds").tag("query", QUERY).functionCounter().count());
+        assertNull(meterRegistry.find("hibernate_query_executions").tag("query", "SELECT tt FROM TrainingType tt").functionCounter());
+    }
+
+    @Test
+    void registerNewQueries_LongQueriesWithSamePrefix_ShouldGetDistinctMeters() {
+        String prefix = "SELECT t FROM Trainee t WHERE " + "t.isActive = true AND ".repeat(20);
+        String first = prefix + "t.address IS NULL";
+        String second = prefix + "t.address IS NOT NULL";
+        when(statistics.getQueries()).thenReturn(new String[]{first, second});
+        when(statistics.getQueryStatistics(first)).thenReturn(queryStatistics);
+        when(statistics.getQueryStatistics(second)).thenReturn(queryStatistics);
+
+        HibernateStatisticsMetrics unlimited = new HibernateStatisticsMetrics(entityManagerFactory, 10);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        unlimited.bindTo(registry);
+
+        assertEquals(2, registry.find("hibernate_query_executions").functionCounters().size());
+        registry.find("hibernate_query_executions").functionCounters()
+                .forEach(counter -> assertTrue(counter.getId().getTag("query").length() <= 200));
+    }
+}
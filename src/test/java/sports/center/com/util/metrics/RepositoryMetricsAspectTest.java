@@ -0,0 +1,84 @@
+package sports.center.com.util.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import sports.center.com.metrics.RepositoryMetricsAspect;
+import sports.center.com.model.Trainer;
+import sports.center.com.repository.TrainerRepository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RepositoryMetricsAspectTest {
+
+    private MeterRegistry meterRegistry;
+    private RepositoryMetricsAspect aspect;
+
+    @Mock
+    private ProceedingJoinPoint joinPoint;
+
+    @Mock
+    private MethodSignature signature;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        aspect = new RepositoryMetricsAspect(meterRegistry, Duration.ofSeconds(1),
+                new Duration[]{Duration.ofMillis(10), Duration.ofMillis(100)});
+
+        when(joinPoint.getThis()).thenReturn(mock(TrainerRepository.class));
+        when(joinPoint.getSignature()).thenReturn(signature);
+    }
+
+    @Test
+    void shouldTimeCallAndRecordRowsPerRepositoryMethod() throws Throwable {
+        when(signature.getMethod()).thenReturn(TrainerRepository.class.getMethod("findNotAssignedActiveTrainers", String.class));
+        when(joinPoint.proceed()).thenReturn(List.of(new Trainer(), new Trainer(), new Trainer()));
+
+        aspect.measureRepositoryCall(joinPoint);
+        aspect.measureRepositoryCall(joinPoint);
+
+        assertEquals(2, meterRegistry.get(RepositoryMetricsAspect.TIMER_NAME)
+                .tags("repository", "TrainerRepository", "method", "findNotAssignedActiveTrainers", "outcome", "success")
+                .timer().count());
+        assertEquals(6.0, meterRegistry.get(RepositoryMetricsAspect.ROWS_NAME)
+                .tags("repository", "TrainerRepository", "method", "findNotAssignedActiveTrainers")
+                .summary().totalAmount());
+    }
+
+    @Test
+    void shouldCountOptionalAsZeroOrOneRow() throws Throwable {
+        when(signature.getMethod()).thenReturn(TrainerRepository.class.getMethod("findByUsername", String.class));
+        when(joinPoint.proceed()).thenReturn(Optional.empty());
+
+        aspect.measureRepositoryCall(joinPoint);
+
+        assertEquals(0.0, meterRegistry.get(RepositoryMetricsAspect.ROWS_NAME).summary().totalAmount());
+        assertEquals(1, meterRegistry.get(RepositoryMetricsAspect.ROWS_NAME).summary().count());
+    }
+
+    @Test
+    void shouldRecordFailuresAndRethrow() throws Throwable {
+        when(signature.getMethod()).thenReturn(TrainerRepository.class.getMethod("findByUsername", String.class));
+        when(joinPoint.proceed()).thenThrow(new QueryTimeoutException("timeout"));
+
+        assertThrows(QueryTimeoutException.class, () -> aspect.measureRepositoryCall(joinPoint));
+
+        assertEquals(1, meterRegistry.get(RepositoryMetricsAspect.TIMER_NAME).tag("outcome", "error").timer().count());
+        assertEquals(0, meterRegistry.get(RepositoryMetricsAspect.ROWS_NAME).summary().count());
+    }
+}
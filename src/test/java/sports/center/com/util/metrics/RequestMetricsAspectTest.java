@@ -1,50 +1,123 @@
 package sports.center.com.util.metrics;
 
-import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+import sports.center.com.controller.TraineeController;
+import sports.center.com.exception.exceptions.TraineeNotFoundException;
 import sports.center.com.metrics.RequestMetricsAspect;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.lang.reflect.Method;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class RequestMetricsAspectTest {
 
     private MeterRegistry meterRegistry;
-    private Counter requestCounter;
-    private Timer responseTimer;
     private RequestMetricsAspect requestMetricsAspect;
 
     @Mock
     private ProceedingJoinPoint joinPoint;
 
+    @Mock
+    private MethodSignature signature;
+
     @BeforeEach
-    void setUp() {
+    void setUp() throws NoSuchMethodException {
         meterRegistry = new SimpleMeterRegistry();
-        requestCounter = meterRegistry.counter("http_requests_total", "type", "all");
-        responseTimer = meterRegistry.timer("http_response_time", "type", "all");
+        requestMetricsAspect = new RequestMetricsAspect(meterRegistry,
+                new Duration[]{Duration.ofMillis(50), Duration.ofMillis(250)});
 
-        requestMetricsAspect = new RequestMetricsAspect(meterRegistry);
+        Method method = TraineeController.class.getMethod("getTraineeProfile", WebRequest.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(signature.getMethod()).thenReturn(method);
     }
 
     @Test
-    void shouldMeasureExecutionTimeAndCountRequests() throws Throwable {
+    void shouldRecordSuccessTimerWithSloBuckets() throws Throwable {
         when(joinPoint.proceed()).thenReturn("MockedResponse");
 
         Object result = requestMetricsAspect.measureExecutionTimeAndCountRequests(joinPoint);
 
-        assertEquals(1.0, requestCounter.count());
+        assertEquals("MockedResponse", result);
+        Timer timer = timer("SUCCESS");
+        assertEquals(1, timer.count());
+        CountAtBucket[] buckets = timer.takeSnapshot().histogramCounts();
+        assertEquals(2, buckets.length);
+    }
+
+    @Test
+    void shouldTagResponseStatusSeries() throws Throwable {
+        when(joinPoint.proceed()).thenReturn(ResponseEntity.status(HttpStatus.NOT_MODIFIED).build());
 
-        assertEquals(1, responseTimer.count());
+        requestMetricsAspect.measureExecutionTimeAndCountRequests(joinPoint);
 
-        assertEquals("MockedResponse", result);
+        assertEquals(1, timer("REDIRECTION").count());
+        assertEquals(0, timer("SUCCESS").count());
+    }
+
+    @Test
+    void shouldTagUnexpectedExceptionsAsServerErrorAndRethrow() throws Throwable {
+        when(joinPoint.proceed()).thenThrow(new IllegalStateException("boom"));
+
+        assertThrows(IllegalStateException.class,
+                () -> requestMetricsAspect.measureExecutionTimeAndCountRequests(joinPoint));
+
+        assertEquals(1, timer("SERVER_ERROR").count());
+    }
+
+    @Test
+    void shouldTagHandledNotFoundAsClientError() throws Throwable {
+        when(joinPoint.proceed()).thenThrow(new TraineeNotFoundException("john.doe"));
+
+        assertThrows(TraineeNotFoundException.class,
+                () -> requestMetricsAspect.measureExecutionTimeAndCountRequests(joinPoint));
+
+        assertEquals(1, timer("CLIENT_ERROR").count());
+        assertEquals(0, timer("EXCEPTION").count());
+    }
+
+    @Test
+    void shouldTagErrorsWithoutHandlerAsException() throws Throwable {
+        when(joinPoint.proceed()).thenThrow(new AssertionError("boom"));
+
+        assertThrows(AssertionError.class,
+                () -> requestMetricsAspect.measureExecutionTimeAndCountRequests(joinPoint));
+
+        assertEquals(1, timer("EXCEPTION").count());
+    }
+
+    @Test
+    void shouldRegisterTimersOncePerHandlerMethod() throws Throwable {
+        when(joinPoint.proceed()).thenReturn("MockedResponse");
+
+        requestMetricsAspect.measureExecutionTimeAndCountRequests(joinPoint);
+        int meters = meterRegistry.getMeters().size();
+        requestMetricsAspect.measureExecutionTimeAndCountRequests(joinPoint);
+
+        assertEquals(meters, meterRegistry.getMeters().size());
+        assertEquals(2, timer("SUCCESS").count());
+        assertNull(meterRegistry.find("http_requests_total").counter());
+    }
+
+    private Timer timer(String outcome) {
+        return meterRegistry.get(RequestMetricsAspect.TIMER_NAME)
+                .tag("endpoint", "TraineeController.getTraineeProfile")
+                .tag("outcome", outcome)
+                .timer();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,55 @@
+package sports.center.com.util.repository;
+
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ManyToMany;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.OneToMany;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.EntityGraph;
+import sports.center.com.model.Trainee;
+import sports.center.com.model.Trainer;
+import sports.center.com.model.Training;
+import sports.center.com.model.TrainingType;
+import sports.center.com.repository.TraineeRepository;
+import sports.center.com.repository.TrainerRepository;
+import sports.center.com.repository.TrainingRepository;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EntityGraphMappingTest {
+
+    @Test
+    void repositoryFetchPlans_ShouldReferToDeclaredEntityGraphs() throws Exception {
+        assertEquals(List.of("trainers"), graphAttributes(Trainee.class, TraineeRepository.class
+                .getMethod("findWithTrainersByUsername", String.class).getAnnotation(EntityGraph.class)));
+        assertEquals(List.of("trainees"), graphAttributes(Trainer.class, TrainerRepository.class
+                .getMethod("findWithTraineesByUsername", String.class).getAnnotation(EntityGraph.class)));
+        assertEquals(List.of("trainee", "trainer", "trainingType"), graphAttributes(Training.class, TrainingRepository.class
+                .getMethod("findById", Long.class).getAnnotation(EntityGraph.class)));
+    }
+
+    @Test
+    void associations_ShouldBeLazy() {
+        for (Class<?> entity : List.of(Trainee.class, Trainer.class, Training.class, TrainingType.class)) {
+            for (Field field : entity.getDeclaredFields()) {
+                FetchType fetch = field.isAnnotationPresent(ManyToOne.class) ? field.getAnnotation(ManyToOne.class).fetch()
+                        : field.isAnnotationPresent(OneToMany.class) ? field.getAnnotation(OneToMany.class).fetch()
+                        : field.isAnnotationPresent(ManyToMany.class) ? field.getAnnotation(ManyToMany.class).fetch()
+                        : FetchType.LAZY;
+                assertEquals(FetchType.LAZY, fetch, entity.getSimpleName() + "." + field.getName());
+            }
+        }
+    }
+
+    private List<String> graphAttributes(Class<?> entity, EntityGraph fetchPlan) {
+        NamedEntityGraph graph = entity.getAnnotation(NamedEntityGraph.class);
+        assertEquals(graph.name(), fetchPlan.value());
+        return Arrays.stream(graph.attributeNodes()).map(NamedAttributeNode::value).toList();
+    }
+}
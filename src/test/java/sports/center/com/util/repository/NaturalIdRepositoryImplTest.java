@@ -0,0 +1,64 @@
+package sports.center.com.util.repository;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.SimpleNaturalIdLoadAccess;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import sports.center.com.model.Trainee;
+import sports.center.com.model.Trainer;
+import sports.center.com.repository.NaturalIdRepositoryImpl;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class NaturalIdRepositoryImplTest {
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private Session session;
+    @Mock
+    private JpaEntityInformation<Trainee, Long> entityInformation;
+    @Mock
+    private SimpleNaturalIdLoadAccess<Trainee> loadAccess;
+
+    private NaturalIdRepositoryImpl<Trainee, Long> repository;
+
+    @BeforeEach
+    void setUp() {
+        when(entityInformation.getJavaType()).thenReturn(Trainee.class);
+        when(entityManager.getDelegate()).thenReturn(session);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(session.bySimpleNaturalId(Trainee.class)).thenReturn(loadAccess);
+
+        repository = new NaturalIdRepositoryImpl<>(entityInformation, entityManager);
+    }
+
+    @Test
+    void findBySimpleNaturalId_ShouldLoadThroughNaturalIdAccess() {
+        Trainee trainee = new Trainee();
+        when(loadAccess.loadOptional("john.doe")).thenReturn(Optional.of(trainee));
+
+        assertSame(trainee, repository.findBySimpleNaturalId("john.doe").orElseThrow());
+        verify(entityManager, never()).createQuery(anyString());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    @Test
+    void findBySimpleNaturalId_OtherSubtype_ShouldReturnEmpty() {
+        when(loadAccess.loadOptional("trainer.john")).thenReturn((Optional) Optional.of(new Trainer()));
+
+        assertTrue(repository.findBySimpleNaturalId("trainer.john").isEmpty());
+    }
+}
@@ -1,31 +1,33 @@
 package sports.center.com.util.repository;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
 import jakarta.persistence.TypedQuery;
-import jakarta.persistence.criteria.CriteriaBuilder;
-import jakarta.persistence.criteria.CriteriaQuery;
-import jakarta.persistence.criteria.Path;
-import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
-import sports.center.com.model.Trainee;
-import sports.center.com.model.Trainer;
+import sports.center.com.dto.training.TrainingPageDto;
+import sports.center.com.dto.training.TrainingResponseDto;
 import sports.center.com.model.Training;
-import sports.center.com.model.TrainingType;
+import sports.center.com.repository.TrainingCursor;
 import sports.center.com.repository.TrainingRepositoryImpl;
 
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,25 +37,24 @@ class TrainingRepositoryImplTest {
     private EntityManager entityManager;
     @Mock
     private CriteriaBuilder criteriaBuilder;
-    @Mock
-    private CriteriaQuery<Training> criteriaQuery;
+    @Mock(answer = Answers.RETURNS_SELF)
+    private CriteriaQuery<Tuple> criteriaQuery;
     @Mock
     private Root<Training> root;
     @Mock
-    private TypedQuery<Training> typedQuery;
+    private TypedQuery<Tuple> typedQuery;
     @Mock
-    private Path<Object> traineePath;
+    private Join<Object, Object> traineeJoin;
     @Mock
-    private Path<Object> trainerPath;
+    private Join<Object, Object> trainerJoin;
     @Mock
-    private Path<Object> trainingTypePath;
+    private Join<Object, Object> trainingTypeJoin;
     @Mock
-    private Path<Date> trainingDatePath;
+    private Tuple row;
 
     @InjectMocks
     private TrainingRepositoryImpl trainingRepository;
 
-    private Training sampleTraining;
     private Date fromDate;
     private Date toDate;
 
@@ -62,49 +63,41 @@ class TrainingRepositoryImplTest {
         fromDate = new Date(System.currentTimeMillis() - 86400000L);
         toDate = new Date();
 
-        Trainee trainee = new Trainee();
-        trainee.setUsername("john.doe");
-
-        Trainer trainer = new Trainer();
-        trainer.setUsername("trainer.john");
-
-        TrainingType trainingType = new TrainingType();
-        trainingType.setTrainingTypeName("Gym");
-
-        sampleTraining = new Training();
-        sampleTraining.setTrainee(trainee);
-        sampleTraining.setTrainer(trainer);
-        sampleTraining.setTrainingType(trainingType);
-        sampleTraining.setTrainingDate(toDate);
-
-        doReturn(traineePath).when(root).get("trainee");
-        doReturn(mock(Path.class)).when(traineePath).get("username");
-
-        doReturn(trainerPath).when(root).get("trainer");
-        doReturn(mock(Path.class)).when(trainerPath).get("username");
-
-        doReturn(trainingTypePath).when(root).get("trainingType");
-        doReturn(mock(Path.class)).when(trainingTypePath).get("trainingTypeName");
+        when(entityManager.getCriteriaBuilder()).thenReturn(criteriaBuilder);
+        when(criteriaBuilder.createTupleQuery()).thenReturn(criteriaQuery);
+        when(criteriaQuery.from(Training.class)).thenReturn(root);
+        when(entityManager.createQuery(criteriaQuery)).thenReturn(typedQuery);
 
-        doReturn(trainingDatePath).when(root).get("trainingDate");
+        doReturn(traineeJoin).when(root).join("trainee");
+        doReturn(trainerJoin).when(root).join("trainer");
+        doReturn(trainingTypeJoin).when(root).join("trainingType");
+        for (Path<?> path : List.of(root, traineeJoin, trainerJoin, trainingTypeJoin)) {
+            Path<Object> attribute = mock(Path.class);
+            doReturn(attribute).when(path).get(anyString());
+            doReturn(attribute).when(attribute).alias(anyString());
+        }
+
+        when(row.get("trainingId", Long.class)).thenReturn(42L);
+        when(row.get("traineeUsername", String.class)).thenReturn("john.doe");
+        when(row.get("trainerUsername", String.class)).thenReturn("trainer.john");
+        when(row.get("trainingName", String.class)).thenReturn("Morning Workout");
+        when(row.get("trainingDate", Date.class)).thenReturn(toDate);
+        when(row.get("trainingDuration", Integer.class)).thenReturn(60);
+        when(row.get("trainingTypeName", String.class)).thenReturn("Gym");
     }
 
     @Test
     void findTrainingsByTraineeCriteria_AllFilters() {
-        when(entityManager.getCriteriaBuilder()).thenReturn(criteriaBuilder);
-        when(criteriaBuilder.createQuery(Training.class)).thenReturn(criteriaQuery);
-        when(criteriaQuery.from(Training.class)).thenReturn(root);
-        when(criteriaQuery.select(root)).thenReturn(criteriaQuery);
-        when(entityManager.createQuery(criteriaQuery)).thenReturn(typedQuery);
-        when(typedQuery.getResultList()).thenReturn(Collections.singletonList(sampleTraining));
+        when(typedQuery.getResultList()).thenReturn(Collections.singletonList(row));
 
-        List<Training> result = trainingRepository.findTrainingsByTraineeCriteria(
+        List<TrainingResponseDto> result = trainingRepository.findTrainingsByTraineeCriteria(
                 "john.doe", fromDate, toDate, "trainer.john", "Gym");
 
         assertEquals(1, result.size());
-        assertEquals("john.doe", result.get(0).getTrainee().getUsername());
-        assertEquals("trainer.john", result.get(0).getTrainer().getUsername());
-        assertEquals("Gym", result.get(0).getTrainingType().getTrainingTypeName());
+        assertEquals("trainer.john", result.get(0).getTrainerUsername());
+        assertNull(result.get(0).getTraineeUsername());
+        assertEquals("Gym", result.get(0).getTrainingTypeName());
+        assertEquals(60, result.get(0).getTrainingDuration());
 
         verify(entityManager, times(1)).createQuery(criteriaQuery);
         verify(typedQuery, times(1)).getResultList();
@@ -112,37 +105,28 @@ class TrainingRepositoryImplTest {
 
     @Test
     void findTrainingsByTraineeCriteria_OnlyTrainee() {
-        when(entityManager.getCriteriaBuilder()).thenReturn(criteriaBuilder);
-        when(criteriaBuilder.createQuery(Training.class)).thenReturn(criteriaQuery);
-        when(criteriaQuery.from(Training.class)).thenReturn(root);
-        when(criteriaQuery.select(root)).thenReturn(criteriaQuery);
-        when(entityManager.createQuery(criteriaQuery)).thenReturn(typedQuery);
-        when(typedQuery.getResultList()).thenReturn(Arrays.asList(sampleTraining, sampleTraining));
+        when(typedQuery.getResultList()).thenReturn(Arrays.asList(row, row));
 
-        List<Training> result = trainingRepository.findTrainingsByTraineeCriteria(
+        List<TrainingResponseDto> result = trainingRepository.findTrainingsByTraineeCriteria(
                 "john.doe", null, null, null, null);
 
         assertEquals(2, result.size());
-        assertEquals("john.doe", result.get(0).getTrainee().getUsername());
+        assertEquals("Morning Workout", result.get(0).getTrainingName());
 
         verify(entityManager, times(1)).createQuery(criteriaQuery);
+        verify(criteriaBuilder, never()).greaterThanOrEqualTo(any(), any(Date.class));
     }
 
     @Test
     void findTrainingsByTrainerCriteria_AllFilters() {
-        when(entityManager.getCriteriaBuilder()).thenReturn(criteriaBuilder);
-        when(criteriaBuilder.createQuery(Training.class)).thenReturn(criteriaQuery);
-        when(criteriaQuery.from(Training.class)).thenReturn(root);
-        when(criteriaQuery.select(root)).thenReturn(criteriaQuery);
-        when(entityManager.createQuery(criteriaQuery)).thenReturn(typedQuery);
-        when(typedQuery.getResultList()).thenReturn(Collections.singletonList(sampleTraining));
+        when(typedQuery.getResultList()).thenReturn(Collections.singletonList(row));
 
-        List<Training> result = trainingRepository.findTrainingsByTrainerCriteria(
+        List<TrainingResponseDto> result = trainingRepository.findTrainingsByTrainerCriteria(
                 "trainer.john", fromDate, toDate, "john.doe");
 
         assertEquals(1, result.size());
-        assertEquals("trainer.john", result.get(0).getTrainer().getUsername());
-        assertEquals("john.doe", result.get(0).getTrainee().getUsername());
+        assertEquals("john.doe", result.get(0).getTraineeUsername());
+        assertNull(result.get(0).getTrainerUsername());
 
         verify(entityManager, times(1)).createQuery(criteriaQuery);
         verify(typedQuery, times(1)).getResultList();
@@ -150,19 +134,54 @@ class TrainingRepositoryImplTest {
 
     @Test
     void findTrainingsByTrainerCriteria_OnlyTrainer() {
-        when(entityManager.getCriteriaBuilder()).thenReturn(criteriaBuilder);
-        when(criteriaBuilder.createQuery(Training.class)).thenReturn(criteriaQuery);
-        when(criteriaQuery.from(Training.class)).thenReturn(root);
-        when(criteriaQuery.select(root)).thenReturn(criteriaQuery);
-        when(entityManager.createQuery(criteriaQuery)).thenReturn(typedQuery);
-        when(typedQuery.getResultList()).thenReturn(Arrays.asList(sampleTraining, sampleTraining));
+        when(typedQuery.getResultList()).thenReturn(Arrays.asList(row, row));
 
-        List<Training> result = trainingRepository.findTrainingsByTrainerCriteria(
+        List<TrainingResponseDto> result = trainingRepository.findTrainingsByTrainerCriteria(
                 "trainer.john", null, null, null);
 
         assertEquals(2, result.size());
-        assertEquals("trainer.john", result.get(0).getTrainer().getUsername());
+        assertEquals(toDate, result.get(0).getTrainingDate());
 
         verify(entityManager, times(1)).createQuery(criteriaQuery);
     }
-}
\ No newline at end of file
+
+    @Test
+    void findTrainingsByTraineeCriteria_Page_ShouldReturnCursorOfLastRow() {
+        when(typedQuery.setMaxResults(3)).thenReturn(typedQuery);
+        when(typedQuery.getResultList()).thenReturn(Arrays.asList(row, row, row));
+
+        TrainingPageDto page = trainingRepository.findTrainingsByTraineeCriteria(
+                "john.doe", null, null, null, null, null, 2);
+
+        assertEquals(2, page.getTrainings().size());
+        assertEquals(new TrainingCursor(toDate, 42L), TrainingCursor.decode(page.getNextCursor()));
+        verify(typedQuery).setMaxResults(3);
+    }
+
+    @Test
+    void findTrainingsByTrainerCriteria_LastPage_ShouldNotReturnCursor() {
+        when(typedQuery.setMaxResults(3)).thenReturn(typedQuery);
+        when(typedQuery.getResultList()).thenReturn(Collections.singletonList(row));
+
+        TrainingPageDto page = trainingRepository.findTrainingsByTrainerCriteria(
+                "trainer.john", null, null, null, new TrainingCursor(toDate, 50L), 2);
+
+        assertEquals(1, page.getTrainings().size());
+        assertNull(page.getNextCursor());
+        verify(criteriaBuilder).or(any(), any());
+    }
+
+    @Test
+    void streamTrainingsByTraineeCriteria_ShouldUseFetchSizeAndMapRows() {
+        when(typedQuery.setHint(anyString(), any())).thenReturn(typedQuery);
+        when(typedQuery.getResultStream()).thenReturn(Stream.of(row, row));
+
+        List<TrainingResponseDto> result = trainingRepository.streamTrainingsByTraineeCriteria(
+                "john.doe", null, null, null, null).toList();
+
+        assertEquals(2, result.size());
+        assertEquals("trainer.john", result.get(0).getTrainerUsername());
+        verify(typedQuery).setHint(eq("org.hibernate.fetchSize"), any());
+        verify(typedQuery, never()).getResultList();
+    }
+}
@@ -0,0 +1,49 @@
+package sports.center.com.util.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import sports.center.com.exception.exceptions.UnauthorizedException;
+import sports.center.com.security.AuthenticatedUser;
+import sports.center.com.security.AuthenticationContext;
+import sports.center.com.security.UserRole;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthenticationContextTest {
+
+    @Mock
+    private HttpServletRequest request;
+
+    @InjectMocks
+    private AuthenticationContext authenticationContext;
+
+    @Test
+    void getUsername_ResolvedPrincipal_ShouldReturnUsername() {
+        when(request.getAttribute(AuthenticatedUser.REQUEST_ATTRIBUTE))
+                .thenReturn(new AuthenticatedUser(1L, "john.doe", UserRole.TRAINEE));
+
+        assertEquals("john.doe", authenticationContext.getUsername(UserRole.TRAINEE));
+        verify(request, never()).getHeader(anyString());
+    }
+
+    @Test
+    void getUsername_NoPrincipal_ShouldThrowUnauthorizedException() {
+        when(request.getAttribute(AuthenticatedUser.REQUEST_ATTRIBUTE)).thenReturn(null);
+
+        assertThrows(UnauthorizedException.class, () -> authenticationContext.getUsername());
+    }
+
+    @Test
+    void getUsername_WrongRole_ShouldThrowUnauthorizedException() {
+        when(request.getAttribute(AuthenticatedUser.REQUEST_ATTRIBUTE))
+                .thenReturn(new AuthenticatedUser(1L, "john.doe", UserRole.TRAINER));
+
+        assertThrows(UnauthorizedException.class, () -> authenticationContext.getUsername(UserRole.TRAINEE));
+    }
+}
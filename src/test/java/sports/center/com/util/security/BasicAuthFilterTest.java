@@ -10,10 +10,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import sports.center.com.security.AuthenticatedUser;
 import sports.center.com.security.BasicAuthFilter;
+import sports.center.com.security.UserRole;
 import sports.center.com.service.AuthService;
 
 import java.io.IOException;
+import java.util.Optional;
 
 import static org.mockito.Mockito.*;
 
@@ -53,6 +56,17 @@ class BasicAuthFilterTest {
         verifyNoInteractions(authService);
     }
 
+    @Test
+    void shouldAllowPostRequestsToBatchRegistration() throws ServletException, IOException {
+        when(request.getRequestURI()).thenReturn("/trainer/batch");
+        when(request.getMethod()).thenReturn("POST");
+
+        basicAuthFilter.doFilter(request, response, filterChain);
+
+        verify(filterChain).doFilter(request, response);
+        verifyNoInteractions(authService);
+    }
+
     @Test
     void shouldRejectRequestWhenAuthorizationHeaderIsMissing() throws ServletException, IOException {
         when(request.getHeader("Authorization")).thenReturn(null);
@@ -78,7 +92,7 @@ class BasicAuthFilterTest {
     @Test
     void shouldRejectRequestWhenCredentialsAreInvalid() throws ServletException, IOException {
         when(request.getHeader("Authorization")).thenReturn("Basic dGVzdHVzZXI6dGVzdHBhc3M=");
-        when(authService.authenticateTrainee("testuser", "testpass")).thenReturn(false);
+        when(authService.resolvePrincipal(request)).thenReturn(Optional.empty());
 
         basicAuthFilter.doFilter(request, response, filterChain);
 
@@ -89,7 +103,8 @@ class BasicAuthFilterTest {
     @Test
     void shouldAllowRequestWhenCredentialsAreValid() throws ServletException, IOException {
         when(request.getHeader("Authorization")).thenReturn("Basic dGVzdHVzZXI6dGVzdHBhc3M=");
-        when(authService.authenticateTrainee("testuser", "testpass")).thenReturn(true);
+        when(authService.resolvePrincipal(request))
+                .thenReturn(Optional.of(new AuthenticatedUser(1L, "testuser", UserRole.TRAINEE)));
 
         basicAuthFilter.doFilter(request, response, filterChain);
 
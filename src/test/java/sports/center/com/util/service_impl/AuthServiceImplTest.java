@@ -1,87 +1,80 @@
 package sports.center.com.util.service_impl;
 
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.EntityManagerFactory;
-import jakarta.persistence.TypedQuery;
 import jakarta.servlet.http.HttpServletRequest;
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import sports.center.com.cache.CredentialCache;
+import sports.center.com.repository.UserRepository;
+import sports.center.com.repository.projection.UserCredentialsView;
+import sports.center.com.security.AuthenticatedUser;
+import sports.center.com.security.UserRole;
 import sports.center.com.service.impl.AuthServiceImpl;
 
 import java.util.Base64;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class AuthServiceImplTest {
 
     @Mock
-    private EntityManagerFactory entityManagerFactory;
+    private UserRepository userRepository;
 
     @Mock
-    private EntityManager entityManager;
-
-    @Mock
-    private TypedQuery<Long> query;
+    private HttpServletRequest request;
 
     @Mock
-    private HttpServletRequest request;
+    private CredentialCache credentialCache;
 
     @InjectMocks
     private AuthServiceImpl authService;
 
-    @BeforeEach
-    void setUp() {
-        lenient().when(entityManagerFactory.createEntityManager()).thenReturn(entityManager);
-        lenient().when(entityManager.createQuery(anyString(), eq(Long.class))).thenReturn(query);
-        lenient().when(query.setParameter(anyString(), any())).thenReturn(query);
-    }
-
     @Test
-    void authenticateTrainee_Success() {
-        when(query.getSingleResult()).thenReturn(1L);
+    void authenticate_Trainee_ShouldResolveTraineePrincipal() {
+        stubCredentials("john.doe", 1L, "password123", "TRAINEE");
 
-        boolean result = authService.authenticateTrainee("john.doe", "password123");
+        Optional<AuthenticatedUser> result = authService.authenticate("john.doe", "password123");
 
-        assertTrue(result);
-        verify(entityManager).close();
+        assertEquals(new AuthenticatedUser(1L, "john.doe", UserRole.TRAINEE), result.orElseThrow());
+        verify(userRepository, times(1)).findCredentialsByUsername("john.doe");
     }
 
     @Test
-    void authenticateTrainee_Failure() {
-        when(query.getSingleResult()).thenReturn(0L);
+    void authenticate_Trainer_ShouldResolveTrainerPrincipal() {
+        stubCredentials("trainer.john", 2L, "trainerPass", "TRAINER");
 
-        boolean result = authService.authenticateTrainee("wrong.user", "wrongPass");
+        Optional<AuthenticatedUser> result = authService.authenticate("trainer.john", "trainerPass");
 
-        assertFalse(result);
-        verify(entityManager).close();
+        assertEquals(new AuthenticatedUser(2L, "trainer.john", UserRole.TRAINER), result.orElseThrow());
+        verify(userRepository, times(1)).findCredentialsByUsername("trainer.john");
     }
 
     @Test
-    void authenticateTrainer_Success() {
-        when(query.getSingleResult()).thenReturn(1L);
+    void authenticate_UnknownUser_ShouldUseSingleLookup() {
+        when(userRepository.findCredentialsByUsername("wrong.user")).thenReturn(Optional.empty());
 
-        boolean result = authService.authenticateTrainer("trainer.john", "trainerPass");
-
-        assertTrue(result);
-        verify(entityManager).close();
+        assertTrue(authService.authenticate("wrong.user", "wrongPass").isEmpty());
+        verify(userRepository, times(1)).findCredentialsByUsername("wrong.user");
     }
 
     @Test
-    void authenticateTrainer_Failure() {
-        when(query.getSingleResult()).thenReturn(0L);
+    void authenticate_WrongPassword_ShouldReturnEmpty() {
+        stubCredentials("john.doe", 1L, "password123", "TRAINEE");
 
-        boolean result = authService.authenticateTrainer("wrong.trainer", "wrongPass");
+        assertTrue(authService.authenticate("john.doe", "wrongPass").isEmpty());
+    }
 
-        assertFalse(result);
-        verify(entityManager).close();
+    @Test
+    void authenticate_UserWithoutRole_ShouldReturnEmpty() {
+        stubCredentials("john.doe", 1L, "password123", "USER");
+
+        assertTrue(authService.authenticate("john.doe", "password123").isEmpty());
     }
 
     @Test
@@ -100,19 +93,18 @@ class AuthServiceImplTest {
     }
 
     @Test
-    void authenticateRequest_ValidTrainee_ShouldReturnTrue() {
-        String encoded = Base64.getEncoder().encodeToString("john.doe:password123".getBytes());
-        when(request.getHeader("Authorization")).thenReturn("Basic " + encoded);
-        when(query.getSingleResult()).thenReturn(1L);
+    void authenticateRequest_MalformedBase64_ShouldReturnFalse() {
+        when(request.getHeader("Authorization")).thenReturn("Basic %%%");
 
-        assertTrue(authService.authenticateRequest(request));
+        assertFalse(authService.authenticateRequest(request));
+        verifyNoInteractions(userRepository);
     }
 
     @Test
-    void authenticateRequest_ValidTrainer_ShouldReturnTrue() {
-        String encoded = Base64.getEncoder().encodeToString("trainer.john:trainerPass".getBytes());
+    void authenticateRequest_ValidTrainee_ShouldReturnTrue() {
+        String encoded = Base64.getEncoder().encodeToString("john.doe:password123".getBytes());
         when(request.getHeader("Authorization")).thenReturn("Basic " + encoded);
-        when(query.getSingleResult()).thenReturn(1L);
+        stubCredentials("john.doe", 1L, "password123", "TRAINEE");
 
         assertTrue(authService.authenticateRequest(request));
     }
@@ -121,8 +113,64 @@ class AuthServiceImplTest {
     void authenticateRequest_WrongCredentials_ShouldReturnFalse() {
         String encoded = Base64.getEncoder().encodeToString("wrong.user:wrongPass".getBytes());
         when(request.getHeader("Authorization")).thenReturn("Basic " + encoded);
-        when(query.getSingleResult()).thenReturn(0L);
+        when(userRepository.findCredentialsByUsername("wrong.user")).thenReturn(Optional.empty());
 
         assertFalse(authService.authenticateRequest(request));
+        verify(request, never()).setAttribute(anyString(), any());
+    }
+
+    @Test
+    void resolvePrincipal_ValidCredentials_ShouldStorePrincipalOnRequest() {
+        String encoded = Base64.getEncoder().encodeToString("john.doe:password123".getBytes());
+        when(request.getHeader("Authorization")).thenReturn("Basic " + encoded);
+        stubCredentials("john.doe", 1L, "password123", "TRAINEE");
+
+        AuthenticatedUser principal = authService.resolvePrincipal(request).orElseThrow();
+
+        verify(request).setAttribute(AuthenticatedUser.REQUEST_ATTRIBUTE, principal);
+    }
+
+    @Test
+    void resolvePrincipal_AlreadyResolved_ShouldNotQueryAgain() {
+        AuthenticatedUser principal = new AuthenticatedUser(1L, "john.doe", UserRole.TRAINEE);
+        when(request.getAttribute(AuthenticatedUser.REQUEST_ATTRIBUTE)).thenReturn(principal);
+
+        assertEquals(principal, authService.resolvePrincipal(request).orElseThrow());
+        verify(request, never()).getHeader(anyString());
+        verifyNoInteractions(userRepository, credentialCache);
+    }
+
+    @Test
+    void authenticate_CachedCredential_ShouldSkipDatabase() {
+        AuthenticatedUser principal = new AuthenticatedUser(1L, "john.doe", UserRole.TRAINEE);
+        when(credentialCache.get("john.doe", "password123")).thenReturn(Optional.of(principal));
+
+        assertEquals(principal, authService.authenticate("john.doe", "password123").orElseThrow());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void authenticate_VerifiedCredential_ShouldBeCached() {
+        stubCredentials("john.doe", 1L, "password123", "TRAINEE");
+
+        authService.authenticate("john.doe", "password123");
+
+        verify(credentialCache).put("john.doe", "password123", new AuthenticatedUser(1L, "john.doe", UserRole.TRAINEE));
+    }
+
+    @Test
+    void authenticate_WrongCredential_ShouldNotBeCached() {
+        stubCredentials("john.doe", 1L, "password123", "TRAINEE");
+
+        assertTrue(authService.authenticate("john.doe", "wrongPass").isEmpty());
+        verify(credentialCache, never()).put(anyString(), anyString(), any());
+    }
+
+    private void stubCredentials(String username, Long id, String password, String userType) {
+        UserCredentialsView credentials = mock(UserCredentialsView.class);
+        lenient().when(credentials.getId()).thenReturn(id);
+        lenient().when(credentials.getPassword()).thenReturn(password);
+        lenient().when(credentials.getUserType()).thenReturn(userType);
+        when(userRepository.findCredentialsByUsername(username)).thenReturn(Optional.of(credentials));
     }
 }
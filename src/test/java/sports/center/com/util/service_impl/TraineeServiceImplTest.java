@@ -1,22 +1,31 @@
 package sports.center.com.util.service_impl;
 
-import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import sports.center.com.cache.CredentialCache;
+import sports.center.com.dto.registration.BatchRegistrationResponseDto;
+import sports.center.com.dto.registration.RegistrationResultDto;
 import sports.center.com.dto.trainee.TraineeRequestDto;
 import sports.center.com.dto.trainee.TraineeResponseDto;
+import sports.center.com.dto.trainer.TrainerResponseDto;
 import sports.center.com.exception.exceptions.InvalidPasswordException;
 import sports.center.com.exception.exceptions.InvalidTraineeRequestException;
+import sports.center.com.exception.exceptions.TraineeNotFoundException;
 import sports.center.com.exception.exceptions.UnauthorizedException;
 import sports.center.com.model.Trainee;
 import sports.center.com.repository.TraineeRepository;
+import sports.center.com.repository.projection.ProfileVersionView;
+import sports.center.com.repository.projection.TraineeProfileView;
+import sports.center.com.security.AuthenticationContext;
+import sports.center.com.security.UserRole;
 import sports.center.com.service.impl.TraineeServiceImpl;
 import sports.center.com.util.UsernameUtil;
 
@@ -24,6 +33,7 @@ import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,11 +49,14 @@ class TraineeServiceImplTest {
     private Validator validator;
 
     @Mock
-    private HttpServletRequest request;
+    private AuthenticationContext authenticationContext;
 
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private CredentialCache credentialCache;
+
 
     @InjectMocks
     private TraineeServiceImpl traineeService;
@@ -75,88 +88,191 @@ class TraineeServiceImplTest {
         assertEquals("johndoe", response.getUsername());
     }
 
+    @Test
+    void createTrainees_ShouldAllocateUsernamesPerNameAndSaveOnce() {
+        TraineeRequestDto other = new TraineeRequestDto("Jane", "Roe", new Date(), "456 Avenue", true);
+        when(usernameUtil.formatBaseUsername("John", "Doe")).thenReturn("john.doe");
+        when(usernameUtil.formatBaseUsername("Jane", "Roe")).thenReturn("jane.roe");
+        when(usernameUtil.generateUsernames("John", "Doe", 2)).thenReturn(List.of("john.doe", "john.doe1"));
+        when(usernameUtil.generateUsernames("Jane", "Roe", 1)).thenReturn(List.of("jane.roe"));
+
+        BatchRegistrationResponseDto response =
+                traineeService.createTrainees(List.of(traineeRequestDto, other, traineeRequestDto));
+
+        assertEquals(3, response.getCreated());
+        assertEquals(List.of("john.doe", "jane.roe", "john.doe1"),
+                response.getResults().stream().map(RegistrationResultDto::getUsername).toList());
+        verify(traineeRepository, times(1)).saveAll(anyList());
+        verify(usernameUtil, never()).generateUsername(any(), any());
+
+        InOrder allocationOrder = inOrder(usernameUtil);
+        allocationOrder.verify(usernameUtil).generateUsernames("Jane", "Roe", 1);
+        allocationOrder.verify(usernameUtil).generateUsernames("John", "Doe", 2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void createTrainees_InvalidItem_ShouldBeReportedWithoutAbortingBatch() {
+        TraineeRequestDto invalid = new TraineeRequestDto("", "Doe", new Date(), "123 Street", true);
+        ConstraintViolation<TraineeRequestDto> violation = mock(ConstraintViolation.class);
+        when(violation.getMessage()).thenReturn("First name is mandatory");
+        when(validator.validate(invalid)).thenReturn(Set.of(violation));
+        when(usernameUtil.formatBaseUsername("John", "Doe")).thenReturn("john.doe");
+        when(usernameUtil.generateUsernames("John", "Doe", 1)).thenReturn(List.of("john.doe"));
+
+        BatchRegistrationResponseDto response = traineeService.createTrainees(Arrays.asList(invalid, traineeRequestDto, null));
+
+        assertEquals(1, response.getCreated());
+        assertEquals(2, response.getFailed());
+        assertEquals("First name is mandatory", response.getResults().get(0).getError());
+        assertEquals("john.doe", response.getResults().get(1).getUsername());
+        assertNotNull(response.getResults().get(2).getError());
+    }
+
+    @Test
+    void createTrainees_EmptyBatch_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> traineeService.createTrainees(List.of()));
+    }
+
     @Test
     void getTraineeProfile_TraineeExists() {
-        when(request.getHeader("Authorization")).thenReturn("Basic am9obmRvZTpwYXNzd29yZDEyMw==");
-        when(traineeRepository.findByUsername("johndoe")).thenReturn(Optional.of(trainee));
+        when(authenticationContext.getUsername(UserRole.TRAINEE)).thenReturn("johndoe");
+        List<TraineeProfileView> rows = List.of(profileRow("trainer.one"), profileRow("trainer.two"));
+        when(traineeRepository.findProfileByUsername("johndoe")).thenReturn(rows);
 
         TraineeResponseDto response = traineeService.getTraineeProfile();
 
         assertNotNull(response);
         assertEquals("John", response.getFirstName());
+        assertEquals(List.of("trainer.one", "trainer.two"),
+                response.getTrainers().stream().map(TrainerResponseDto::getUsername).toList());
+        verify(traineeRepository, never()).findByUsername(anyString());
+        verify(traineeRepository, never()).findWithTrainersByUsername(anyString());
+    }
+
+    @Test
+    void getTraineeProfile_NoTrainers_ShouldReturnEmptyTrainerList() {
+        when(authenticationContext.getUsername(UserRole.TRAINEE)).thenReturn("johndoe");
+        List<TraineeProfileView> rows = List.of(profileRow(null));
+        when(traineeRepository.findProfileByUsername("johndoe")).thenReturn(rows);
+
+        TraineeResponseDto response = traineeService.getTraineeProfile();
+
+        assertTrue(response.getTrainers().isEmpty());
     }
 
 
     @Test
     void getTraineeProfile_TraineeNotFound() {
-        when(request.getHeader("Authorization")).thenReturn("Basic am9obmRvZTpwYXNzd29yZDEyMw==");
-        when(traineeRepository.findByUsername("johndoe")).thenReturn(Optional.empty());
+        when(authenticationContext.getUsername(UserRole.TRAINEE)).thenReturn("johndoe");
+        when(traineeRepository.findProfileByUsername("johndoe")).thenReturn(List.of());
 
-        assertThrows(UnauthorizedException.class, () -> traineeService.getTraineeProfile());
+        assertThrows(TraineeNotFoundException.class, () -> traineeService.getTraineeProfile());
+    }
+
+    @Test
+    void getTraineeProfileETag_ShouldBuildTagFromVersionsWithoutLoadingProfile() {
+        List<ProfileVersionView> rows = List.of(versionRow(4L, 1L, 3L), versionRow(4L, 4L, 2L));
+        when(authenticationContext.getUsername(UserRole.TRAINEE)).thenReturn("johndoe");
+        when(traineeRepository.findProfileVersionByUsername("johndoe")).thenReturn(rows);
+
+        String eTag = traineeService.getTraineeProfileETag();
+
+        assertTrue(eTag.matches("trainee-[0-9a-f]{16}"));
+        assertEquals(eTag, ProfileVersionView.toETag("trainee", List.of(rows.get(1), rows.get(0))).orElseThrow());
+        verify(traineeRepository, never()).findProfileByUsername(anyString());
+    }
+
+    @Test
+    void profileETag_DifferentUsersWithSameVersion_ShouldDiffer() {
+        String first = ProfileVersionView.toETag("trainee", List.of(versionRow(1L, 0L, null, null))).orElseThrow();
+        String second = ProfileVersionView.toETag("trainee", List.of(versionRow(2L, 0L, null, null))).orElseThrow();
+
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    void profileETag_SwappedLinkedUsersWithSameSums_ShouldDiffer() {
+        String before = ProfileVersionView.toETag("trainee",
+                List.of(versionRow(4L, 1L, 2L), versionRow(4L, 4L, 3L))).orElseThrow();
+        String after = ProfileVersionView.toETag("trainee",
+                List.of(versionRow(4L, 2L, 2L), versionRow(4L, 3L, 3L))).orElseThrow();
+
+        assertNotEquals(before, after);
+    }
+
+    @Test
+    void getTraineeProfileETag_TraineeNotFound() {
+        when(authenticationContext.getUsername(UserRole.TRAINEE)).thenReturn("johndoe");
+        when(traineeRepository.findProfileVersionByUsername("johndoe")).thenReturn(List.of());
+
+        assertThrows(TraineeNotFoundException.class, () -> traineeService.getTraineeProfileETag());
     }
 
     @Test
     void getAuthenticatedUsername_MissingAuthHeader_ShouldThrowUnauthorizedException() {
-        when(request.getHeader("Authorization")).thenReturn(null);
+        when(authenticationContext.getUsername(UserRole.TRAINEE)).thenThrow(new UnauthorizedException("Unauthorized request"));
         assertThrows(UnauthorizedException.class, () -> traineeService.getTraineeProfile());
     }
 
     @Test
     void changeTraineePassword_SameAsOld_ShouldThrowException() {
-        when(request.getHeader("Authorization")).thenReturn("Basic am9obmRvZTpwYXNzd29yZDEyMw==");
-        when(traineeRepository.findByUsername("johndoe")).thenReturn(Optional.of(trainee));
+        when(authenticationContext.getUsername(UserRole.TRAINEE)).thenReturn("johndoe");
         assertThrows(InvalidPasswordException.class, () -> traineeService.changeTraineePassword("password123"));
+        verify(traineeRepository, never()).findByUsername(any());
     }
 
     @Test
     void changeTraineePassword_TooShort_ShouldThrowException() {
-        when(request.getHeader("Authorization")).thenReturn("Basic am9obmRvZTpwYXNzd29yZDEyMw==");
-        when(traineeRepository.findByUsername("johndoe")).thenReturn(Optional.of(trainee));
+        when(authenticationContext.getUsername(UserRole.TRAINEE)).thenReturn("johndoe");
         assertThrows(InvalidPasswordException.class, () -> traineeService.changeTraineePassword("short"));
+        verify(traineeRepository, never()).findByUsername(any());
     }
 
     @Test
     void deleteTrainee_NotAuthenticated_ShouldThrowUnauthorizedException() {
-        when(request.getHeader("Authorization")).thenReturn(null);
+        when(authenticationContext.getUsername(UserRole.TRAINEE)).thenThrow(new UnauthorizedException("Unauthorized request"));
         assertThrows(UnauthorizedException.class, () -> traineeService.deleteTrainee());
     }
 
     @Test
     void changeTraineePassword_Success() {
-        when(request.getHeader("Authorization")).thenReturn("Basic am9obmRvZTpwYXNzd29yZDEyMw==");
+        when(authenticationContext.getUsername(UserRole.TRAINEE)).thenReturn("johndoe");
         when(traineeRepository.findByUsername("johndoe")).thenReturn(Optional.of(trainee));
 
         assertTrue(traineeService.changeTraineePassword("newPass123"));
         verify(traineeRepository).save(any(Trainee.class));
+        verify(credentialCache).invalidate("johndoe");
     }
 
     @Test
     void changeTraineePassword_InvalidPassword() {
-        when(request.getHeader("Authorization")).thenReturn("Basic am9obmRvZTpwYXNzd29yZDEyMw==");
-        when(traineeRepository.findByUsername("johndoe")).thenReturn(Optional.of(trainee));
+        when(authenticationContext.getUsername(UserRole.TRAINEE)).thenReturn("johndoe");
 
         assertThrows(InvalidPasswordException.class, () -> traineeService.changeTraineePassword("short"));
+        verify(traineeRepository, never()).findByUsername(any());
     }
 
     @Test
     void deleteTrainee_Success() {
-        when(request.getHeader("Authorization")).thenReturn("Basic am9obmRvZTpwYXNzd29yZDEyMw==");
+        when(authenticationContext.getUsername(UserRole.TRAINEE)).thenReturn("johndoe");
         when(traineeRepository.findByUsername("johndoe")).thenReturn(Optional.of(trainee));
 
         assertTrue(traineeService.deleteTrainee());
         verify(traineeRepository).delete(any(Trainee.class));
+        verify(credentialCache).invalidate("johndoe");
     }
 
     @Test
     void getAuthenticatedUsername_Unauthorized() {
-        when(request.getHeader("Authorization")).thenReturn(null);
+        when(authenticationContext.getUsername(UserRole.TRAINEE)).thenThrow(new UnauthorizedException("Unauthorized request"));
         assertThrows(UnauthorizedException.class, () -> traineeService.getTraineeProfile());
     }
 
     @Test
     void updateTraineeProfile_Success() {
-        when(request.getHeader("Authorization")).thenReturn("Basic am9obmRvZTpwYXNzd29yZDEyMw==");
-        when(traineeRepository.findByUsername("johndoe")).thenReturn(Optional.of(trainee));
+        when(authenticationContext.getUsername(UserRole.TRAINEE)).thenReturn("johndoe");
+        when(traineeRepository.findWithTrainersByUsername("johndoe")).thenReturn(Optional.of(trainee));
         when(traineeRepository.save(any(Trainee.class))).thenReturn(trainee);
 
         TraineeResponseDto response = traineeService.updateTraineeProfile(traineeRequestDto);
@@ -167,7 +283,7 @@ class TraineeServiceImplTest {
 
     @Test
     void changeTraineeStatus_Success() {
-        when(request.getHeader("Authorization")).thenReturn("Basic am9obmRvZTpwYXNzd29yZDEyMw==");
+        when(authenticationContext.getUsername(UserRole.TRAINEE)).thenReturn("johndoe");
         when(traineeRepository.findByUsername("johndoe")).thenReturn(Optional.of(trainee));
         when(traineeRepository.save(any(Trainee.class))).thenAnswer(i -> i.getArgument(0));
 
@@ -180,38 +296,37 @@ class TraineeServiceImplTest {
     }
 
     @Test
-    void changeTraineeStatus_TraineeNotFound_ShouldThrowUnauthorizedException() {
-        when(request.getHeader("Authorization")).thenReturn("Basic am9obmRvZTpwYXNzd29yZDEyMw==");
+    void changeTraineeStatus_TraineeNotFound_ShouldThrowTraineeNotFoundException() {
+        when(authenticationContext.getUsername(UserRole.TRAINEE)).thenReturn("johndoe");
         when(traineeRepository.findByUsername("johndoe")).thenReturn(Optional.empty());
 
-        assertThrows(UnauthorizedException.class, () -> traineeService.changeTraineeStatus());
+        assertThrows(TraineeNotFoundException.class, () -> traineeService.changeTraineeStatus());
     }
 
     @Test
     void changeTraineeStatus_InvalidAuthFormat_ShouldThrowUnauthorizedException() {
-        when(request.getHeader("Authorization")).thenReturn("Basic aW52YWxpZF9iYXNlNjQ=");
+        when(authenticationContext.getUsername(UserRole.TRAINEE)).thenThrow(new UnauthorizedException("Unauthorized request"));
 
         assertThrows(UnauthorizedException.class, () -> traineeService.changeTraineeStatus());
     }
 
     @Test
     void changeTraineeStatus_InvalidAuthHeader_ShouldThrowUnauthorizedException() {
-        when(request.getHeader("Authorization")).thenReturn(null);
+        when(authenticationContext.getUsername(UserRole.TRAINEE)).thenThrow(new UnauthorizedException("Unauthorized request"));
 
         assertThrows(UnauthorizedException.class, () -> traineeService.changeTraineeStatus());
     }
 
     @Test
     void changeTraineeStatus_WrongPassword_ShouldThrowUnauthorizedException() {
-        when(request.getHeader("Authorization")).thenReturn("Basic am9obmRvZTppbmNvcnJlY3RwYXNzd29yZA==");
-        when(traineeRepository.findByUsername("johndoe")).thenReturn(Optional.of(trainee));
+        when(authenticationContext.getUsername(UserRole.TRAINEE)).thenThrow(new UnauthorizedException("Unauthorized request"));
 
         assertThrows(UnauthorizedException.class, () -> traineeService.changeTraineeStatus());
     }
 
     @Test
     void changeTraineeStatus_ToggleTwice_ShouldRestoreOriginalState() {
-        when(request.getHeader("Authorization")).thenReturn("Basic am9obmRvZTpwYXNzd29yZDEyMw==");
+        when(authenticationContext.getUsername(UserRole.TRAINEE)).thenReturn("johndoe");
         when(traineeRepository.findByUsername("johndoe")).thenReturn(Optional.of(trainee));
         when(traineeRepository.save(any(Trainee.class))).thenAnswer(i -> i.getArgument(0));
 
@@ -230,31 +345,54 @@ class TraineeServiceImplTest {
 
     @Test
     void getTraineeProfile_InvalidToken_ShouldThrowUnauthorizedException() {
-        when(request.getHeader("Authorization")).thenReturn("InvalidToken");
+        when(authenticationContext.getUsername(UserRole.TRAINEE)).thenThrow(new UnauthorizedException("Unauthorized request"));
 
         assertThrows(UnauthorizedException.class, () -> traineeService.getTraineeProfile());
     }
 
     @Test
     void changeTraineePassword_WeakPassword_ShouldThrowException() {
-        when(request.getHeader("Authorization")).thenReturn("Basic am9obmRvZTpwYXNzd29yZDEyMw==");
-        when(traineeRepository.findByUsername("johndoe")).thenReturn(Optional.of(trainee));
+        when(authenticationContext.getUsername(UserRole.TRAINEE)).thenReturn("johndoe");
 
         assertThrows(InvalidPasswordException.class, () -> traineeService.changeTraineePassword("12345678"));
+        verify(traineeRepository, never()).findByUsername(any());
     }
 
     @Test
-    void deleteTrainee_UserDoesNotExist_ShouldThrowUnauthorizedException() {
-        when(request.getHeader("Authorization")).thenReturn("Basic am9obmRvZTpwYXNzd29yZDEyMw==");
+    void deleteTrainee_UserDoesNotExist_ShouldThrowTraineeNotFoundException() {
+        when(authenticationContext.getUsername(UserRole.TRAINEE)).thenReturn("johndoe");
         when(traineeRepository.findByUsername("johndoe")).thenReturn(Optional.empty());
 
-        assertThrows(UnauthorizedException.class, () -> traineeService.deleteTrainee());
+        assertThrows(TraineeNotFoundException.class, () -> traineeService.deleteTrainee());
     }
 
     @Test
     void deleteTrainee_Unauthenticated_ShouldThrowUnauthorizedException() {
-        when(request.getHeader("Authorization")).thenReturn(null);
+        when(authenticationContext.getUsername(UserRole.TRAINEE)).thenThrow(new UnauthorizedException("Unauthorized request"));
 
         assertThrows(UnauthorizedException.class, () -> traineeService.deleteTrainee());
     }
-}
\ No newline at end of file
+
+    private ProfileVersionView versionRow(Long version, Long linkedId, Long linkedVersion) {
+        return versionRow(1L, version, linkedId, linkedVersion);
+    }
+
+    private ProfileVersionView versionRow(Long id, Long version, Long linkedId, Long linkedVersion) {
+        ProfileVersionView row = mock(ProfileVersionView.class);
+        lenient().when(row.getId()).thenReturn(id);
+        lenient().when(row.getVersion()).thenReturn(version);
+        lenient().when(row.getLinkedId()).thenReturn(linkedId);
+        lenient().when(row.getLinkedVersion()).thenReturn(linkedVersion);
+        return row;
+    }
+
+    private TraineeProfileView profileRow(String trainerUsername) {
+        TraineeProfileView row = mock(TraineeProfileView.class);
+        lenient().when(row.getFirstName()).thenReturn("John");
+        lenient().when(row.getLastName()).thenReturn("Doe");
+        lenient().when(row.getIsActive()).thenReturn(true);
+        lenient().when(row.getTrainerUsername()).thenReturn(trainerUsername);
+        lenient().when(row.getTrainerSpecializationId()).thenReturn(1L);
+        return row;
+    }
+}
@@ -1,6 +1,5 @@
 package sports.center.com.util.service_impl;
 
-import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -8,25 +7,34 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import sports.center.com.cache.CredentialCache;
+import sports.center.com.cache.TrainingTypeCatalog;
+import sports.center.com.dto.registration.BatchRegistrationResponseDto;
 import sports.center.com.dto.trainer.TrainerRequestDto;
 import sports.center.com.dto.trainer.TrainerResponseDto;
 import sports.center.com.exception.exceptions.InvalidTrainerRequestException;
 import sports.center.com.exception.exceptions.SpecializationNotFoundException;
+import sports.center.com.exception.exceptions.TrainerNotFoundException;
 import sports.center.com.exception.exceptions.UnauthorizedException;
 import sports.center.com.model.Trainer;
 import sports.center.com.model.TrainingType;
 import sports.center.com.repository.TrainerRepository;
-import sports.center.com.repository.TrainingTypeRepository;
+import sports.center.com.repository.projection.TrainerProfileView;
+import sports.center.com.security.AuthenticationContext;
+import sports.center.com.security.UserRole;
 import sports.center.com.service.impl.TrainerServiceImpl;
 import sports.center.com.util.UsernameUtil;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,7 +44,7 @@ class TrainerServiceImplTest {
     private TrainerRepository trainerRepository;
 
     @Mock
-    private TrainingTypeRepository trainingTypeRepository;
+    private TrainingTypeCatalog trainingTypeCatalog;
 
     @Mock
     private UsernameUtil usernameUtil;
@@ -45,7 +53,10 @@ class TrainerServiceImplTest {
     private Validator validator;
 
     @Mock
-    private HttpServletRequest request;
+    private AuthenticationContext authenticationContext;
+
+    @Mock
+    private CredentialCache credentialCache;
 
     @InjectMocks
     private TrainerServiceImpl trainerService;
@@ -83,7 +94,7 @@ class TrainerServiceImplTest {
         trainingType.setId(1L);
 
         when(usernameUtil.generateUsername(any(), any())).thenReturn("johndoe");
-        when(trainingTypeRepository.findById(1L)).thenReturn(Optional.of(trainingType));
+        when(trainingTypeCatalog.findReferenceById(1L)).thenReturn(Optional.of(trainingType));
         when(trainerRepository.save(any(Trainer.class))).thenReturn(trainer);
 
         TrainerResponseDto response = trainerService.createTrainer(trainerRequestDto);
@@ -94,7 +105,7 @@ class TrainerServiceImplTest {
 
     @Test
     void createTrainer_SpecializationNotFound_ShouldThrowException() {
-        when(trainingTypeRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(trainingTypeCatalog.findReferenceById(anyLong())).thenReturn(Optional.empty());
 
         assertThrows(SpecializationNotFoundException.class, () -> trainerService.createTrainer(trainerRequestDto));
     }
@@ -107,38 +118,60 @@ class TrainerServiceImplTest {
     }
 
     @Test
-    void getTrainerProfile_TrainerExists() {
-        when(request.getHeader("Authorization")).thenReturn("Basic am9obmRvZTpwYXNzd29yZDEyMw==");
-        when(trainerRepository.findByUsername("johndoe")).thenReturn(Optional.of(trainer));
+    void createTrainers_UnknownSpecialization_ShouldFailOnlyThatItem() {
+        TrainingType specialization = new TrainingType();
+        specialization.setId(1L);
+        TrainerRequestDto unknownSpecialization = new TrainerRequestDto("Jane", "Roe", 99L, true);
+        when(trainingTypeCatalog.findReferenceById(1L)).thenReturn(Optional.of(specialization));
+        when(trainingTypeCatalog.findReferenceById(99L)).thenReturn(Optional.empty());
+        when(usernameUtil.formatBaseUsername("John", "Doe")).thenReturn("john.doe");
+        when(usernameUtil.generateUsernames("John", "Doe", 1)).thenReturn(List.of("john.doe"));
+
+        BatchRegistrationResponseDto response =
+                trainerService.createTrainers(List.of(trainerRequestDto, unknownSpecialization));
+
+        assertEquals(1, response.getCreated());
+        assertEquals("john.doe", response.getResults().get(0).getUsername());
+        assertEquals("Specialization not found: 99", response.getResults().get(1).getError());
+        verify(trainerRepository, times(1)).saveAll(anyList());
+    }
 
-        TrainerResponseDto response = trainerService.getTrainerProfile();
+    @Test
+    void createTrainers_TooLargeBatch_ShouldThrowException() {
+        List<TrainerRequestDto> requests = Collections.nCopies(1001, trainerRequestDto);
 
-        assertNotNull(response);
-        assertEquals("John", response.getFirstName());
+        assertThrows(IllegalArgumentException.class, () -> trainerService.createTrainers(requests));
+        verifyNoInteractions(trainerRepository);
     }
 
     @Test
-    void getTrainerProfile_TrainerHasNoSpecialization_ShouldThrowException() {
-        trainer.setSpecialization(null);
+    void getTrainerProfile_TrainerExists() {
+        when(authenticationContext.getUsername(UserRole.TRAINER)).thenReturn("johndoe");
+        List<TrainerProfileView> rows = List.of(profileRow("trainee.one"));
+        when(trainerRepository.findProfileByUsername("johndoe")).thenReturn(rows);
 
-        when(request.getHeader("Authorization")).thenReturn("Basic am9obmRvZTpwYXNzd29yZDEyMw==");
-        when(trainerRepository.findByUsername("johndoe")).thenReturn(Optional.of(trainer));
+        TrainerResponseDto response = trainerService.getTrainerProfile();
 
-        assertThrows(NullPointerException.class, () -> trainerService.getTrainerProfile());
+        assertNotNull(response);
+        assertEquals("John", response.getFirstName());
+        assertEquals(1L, response.getSpecializationId());
+        assertEquals("trainee.one", response.getTrainees().get(0).getUsername());
+        verify(trainerRepository, never()).findByUsername(anyString());
+        verify(trainerRepository, never()).findWithTraineesByUsername(anyString());
     }
 
     @Test
-    void getTrainerProfile_TrainerNotFound_ShouldThrowUnauthorizedException() {
-        when(request.getHeader("Authorization")).thenReturn("Basic am9obmRvZTpwYXNzd29yZDEyMw==");
-        when(trainerRepository.findByUsername("johndoe")).thenReturn(Optional.empty());
+    void getTrainerProfile_TrainerNotFound_ShouldThrowTrainerNotFoundException() {
+        when(authenticationContext.getUsername(UserRole.TRAINER)).thenReturn("johndoe");
+        when(trainerRepository.findProfileByUsername("johndoe")).thenReturn(List.of());
 
-        assertThrows(UnauthorizedException.class, () -> trainerService.getTrainerProfile());
+        assertThrows(TrainerNotFoundException.class, () -> trainerService.getTrainerProfile());
     }
 
     @Test
     void updateTrainerProfile_NoChanges_ShouldReturnSameTrainer() {
-        when(request.getHeader("Authorization")).thenReturn("Basic am9obmRvZTpwYXNzd29yZDEyMw==");
-        when(trainerRepository.findByUsername("johndoe")).thenReturn(Optional.of(trainer));
+        when(authenticationContext.getUsername(UserRole.TRAINER)).thenReturn("johndoe");
+        when(trainerRepository.findWithTraineesByUsername("johndoe")).thenReturn(Optional.of(trainer));
         when(trainerRepository.save(any(Trainer.class))).thenReturn(trainer);
 
         TrainerResponseDto response = trainerService.updateTrainerProfile(trainerRequestDto);
@@ -148,28 +181,25 @@ class TrainerServiceImplTest {
     }
 
     @Test
-    void getAuthenticatedUsername_TrainerHasNoPassword_ShouldThrowUnauthorizedException() {
-        trainer.setPassword(null);
+    void getTrainerProfileETag_TrainerNotFound_ShouldThrowTrainerNotFoundException() {
+        when(authenticationContext.getUsername(UserRole.TRAINER)).thenReturn("johndoe");
+        when(trainerRepository.findProfileVersionByUsername("johndoe")).thenReturn(List.of());
 
-        when(request.getHeader("Authorization")).thenReturn("Basic am9obmRvZTpwYXNzd29yZDEyMw==");
-        when(trainerRepository.findByUsername("johndoe")).thenReturn(Optional.of(trainer));
-
-        assertThrows(UnauthorizedException.class, () -> trainerService.getTrainerProfile());
+        assertThrows(TrainerNotFoundException.class, () -> trainerService.getTrainerProfileETag());
     }
 
     @Test
     void getTrainerProfile_TrainerHasNoTrainees_ShouldNotThrowException() {
-        trainer.setTrainees(null);
-
-        when(request.getHeader("Authorization")).thenReturn("Basic am9obmRvZTpwYXNzd29yZDEyMw==");
-        when(trainerRepository.findByUsername("johndoe")).thenReturn(Optional.of(trainer));
+        when(authenticationContext.getUsername(UserRole.TRAINER)).thenReturn("johndoe");
+        List<TrainerProfileView> rows = List.of(profileRow(null));
+        when(trainerRepository.findProfileByUsername("johndoe")).thenReturn(rows);
 
         assertDoesNotThrow(() -> trainerService.getTrainerProfile());
     }
 
     @Test
     void changeTrainerStatus_Success() {
-        when(request.getHeader("Authorization")).thenReturn("Basic am9obmRvZTpwYXNzd29yZDEyMw==");
+        when(authenticationContext.getUsername(UserRole.TRAINER)).thenReturn("johndoe");
         when(trainerRepository.findByUsername("johndoe")).thenReturn(Optional.of(trainer));
         when(trainerRepository.save(any(Trainer.class))).thenAnswer(i -> i.getArgument(0));
 
@@ -179,18 +209,19 @@ class TrainerServiceImplTest {
         assertNotEquals(previousStatus, result);
         assertEquals(!previousStatus, trainer.getIsActive());
         verify(trainerRepository).save(trainer);
+        verify(credentialCache).invalidate("johndoe");
     }
 
     @Test
     void changeTrainerStatus_Unauthorized_ShouldThrowException() {
-        when(request.getHeader("Authorization")).thenReturn(null);
+        when(authenticationContext.getUsername(UserRole.TRAINER)).thenThrow(new UnauthorizedException("Unauthorized request"));
 
         assertThrows(UnauthorizedException.class, () -> trainerService.changeTrainerStatus());
     }
 
     @Test
     void changeTrainerStatus_ToggleTwice_ShouldRestoreOriginalState() {
-        when(request.getHeader("Authorization")).thenReturn("Basic am9obmRvZTpwYXNzd29yZDEyMw==");
+        when(authenticationContext.getUsername(UserRole.TRAINER)).thenReturn("johndoe");
         when(trainerRepository.findByUsername("johndoe")).thenReturn(Optional.of(trainer));
         when(trainerRepository.save(any(Trainer.class))).thenAnswer(i -> i.getArgument(0));
 
@@ -209,8 +240,8 @@ class TrainerServiceImplTest {
 
     @Test
     void updateTrainerProfile_Success() {
-        when(request.getHeader("Authorization")).thenReturn("Basic am9obmRvZTpwYXNzd29yZDEyMw==");
-        when(trainerRepository.findByUsername("johndoe")).thenReturn(Optional.of(trainer));
+        when(authenticationContext.getUsername(UserRole.TRAINER)).thenReturn("johndoe");
+        when(trainerRepository.findWithTraineesByUsername("johndoe")).thenReturn(Optional.of(trainer));
         when(trainerRepository.save(any(Trainer.class))).thenReturn(trainer);
 
         TrainerResponseDto response = trainerService.updateTrainerProfile(trainerRequestDto);
@@ -229,21 +260,21 @@ class TrainerServiceImplTest {
 
     @Test
     void getTrainerProfile_InvalidAuthHeader_ShouldThrowUnauthorizedException() {
-        when(request.getHeader("Authorization")).thenReturn("Bearer sometoken");
+        when(authenticationContext.getUsername(UserRole.TRAINER)).thenThrow(new UnauthorizedException("Unauthorized request"));
 
         assertThrows(UnauthorizedException.class, () -> trainerService.getTrainerProfile());
     }
 
     @Test
     void getTrainerProfile_NoAuthHeader_ShouldThrowUnauthorizedException() {
-        when(request.getHeader("Authorization")).thenReturn(null);
+        when(authenticationContext.getUsername(UserRole.TRAINER)).thenThrow(new UnauthorizedException("Unauthorized request"));
 
         assertThrows(UnauthorizedException.class, () -> trainerService.getTrainerProfile());
     }
 
     @Test
     void changeTrainerStatus_ShouldToggleStatus() {
-        when(request.getHeader("Authorization")).thenReturn("Basic am9obmRvZTpwYXNzd29yZDEyMw==");
+        when(authenticationContext.getUsername(UserRole.TRAINER)).thenReturn("johndoe");
         when(trainerRepository.findByUsername("johndoe")).thenReturn(Optional.of(trainer));
         when(trainerRepository.save(any(Trainer.class))).thenAnswer(i -> i.getArgument(0));
 
@@ -266,13 +297,13 @@ class TrainerServiceImplTest {
 
     @Test
     void getTrainerProfile_Unauthorized_ShouldThrowException() {
-        when(request.getHeader("Authorization")).thenReturn(null);
+        when(authenticationContext.getUsername(UserRole.TRAINER)).thenThrow(new UnauthorizedException("Unauthorized request"));
         assertThrows(UnauthorizedException.class, () -> trainerService.getTrainerProfile());
     }
 
     @Test
     void getAuthenticatedUsername_InvalidFormat_ShouldThrowException() {
-        when(request.getHeader("Authorization")).thenReturn("InvalidFormatToken");
+        when(authenticationContext.getUsername(UserRole.TRAINER)).thenThrow(new UnauthorizedException("Unauthorized request"));
         assertThrows(UnauthorizedException.class, () -> trainerService.getTrainerProfile());
     }
 
@@ -286,9 +317,17 @@ class TrainerServiceImplTest {
 
     @Test
     void getAuthenticatedUsername_WrongPassword_ShouldThrowException() {
-        trainer.setPassword("correctPassword");
-        when(request.getHeader("Authorization")).thenReturn("Basic am9obmRvZTp3cm9uZ3Bhc3N3b3Jk");
-        when(trainerRepository.findByUsername("johndoe")).thenReturn(Optional.of(trainer));
+        when(authenticationContext.getUsername(UserRole.TRAINER)).thenThrow(new UnauthorizedException("Unauthorized request"));
         assertThrows(UnauthorizedException.class, () -> trainerService.getTrainerProfile());
     }
-}
\ No newline at end of file
+
+    private TrainerProfileView profileRow(String traineeUsername) {
+        TrainerProfileView row = mock(TrainerProfileView.class);
+        lenient().when(row.getFirstName()).thenReturn("John");
+        lenient().when(row.getLastName()).thenReturn("Doe");
+        lenient().when(row.getSpecializationId()).thenReturn(1L);
+        lenient().when(row.getIsActive()).thenReturn(true);
+        lenient().when(row.getTraineeUsername()).thenReturn(traineeUsername);
+        return row;
+    }
+}
@@ -1,16 +1,19 @@
 package sports.center.com.util.service_impl;
 
-import jakarta.servlet.http.HttpServletRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import sports.center.com.cache.TrainingTypeCatalog;
 import sports.center.com.dto.trainer.TrainerResponseDto;
 import sports.center.com.dto.training.TrainingRequestDto;
 import sports.center.com.dto.training.TrainingResponseDto;
+import sports.center.com.dto.training.TrainingTypeResponseDto;
 import sports.center.com.exception.exceptions.*;
 import sports.center.com.model.Trainee;
 import sports.center.com.model.Trainer;
@@ -19,11 +22,13 @@ import sports.center.com.model.TrainingType;
 import sports.center.com.repository.TraineeRepository;
 import sports.center.com.repository.TrainerRepository;
 import sports.center.com.repository.TrainingRepository;
-import sports.center.com.repository.TrainingTypeRepository;
+import sports.center.com.security.AuthenticationContext;
 import sports.center.com.service.impl.TrainingServiceImpl;
 
+import java.io.ByteArrayOutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -43,13 +48,16 @@ class TrainingServiceImplTest {
     private TrainerRepository trainerRepository;
 
     @Mock
-    private TrainingTypeRepository trainingTypeRepository;
+    private TrainingTypeCatalog trainingTypeCatalog;
 
     @Mock
     private Validator validator;
 
     @Mock
-    private HttpServletRequest request;
+    private AuthenticationContext authenticationContext;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
 
     @InjectMocks
     private TrainingServiceImpl trainingService;
@@ -80,9 +88,9 @@ class TrainingServiceImplTest {
 
     @Test
     void addTraining_Success() {
-        when(traineeRepository.findByUsername(anyString())).thenReturn(Optional.of(trainee));
+        when(traineeRepository.findWithTrainersByUsername(anyString())).thenReturn(Optional.of(trainee));
         when(trainerRepository.findByUsername(anyString())).thenReturn(Optional.of(trainer));
-        when(trainingTypeRepository.findByTrainingTypeName(anyString())).thenReturn(Optional.of(trainingType));
+        when(trainingTypeCatalog.findReferenceByName(anyString())).thenReturn(Optional.of(trainingType));
         when(trainingRepository.save(any(Training.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         TrainingResponseDto response = trainingService.addTraining(trainingRequestDto);
@@ -96,22 +104,22 @@ class TrainingServiceImplTest {
 
     @Test
     void addTraining_TraineeNotFound_ShouldThrowException() {
-        when(traineeRepository.findByUsername(anyString())).thenReturn(Optional.empty());
+        when(traineeRepository.findWithTrainersByUsername(anyString())).thenReturn(Optional.empty());
         assertThrows(TraineeNotFoundException.class, () -> trainingService.addTraining(trainingRequestDto));
     }
 
     @Test
     void addTraining_TrainerNotFound_ShouldThrowException() {
-        when(traineeRepository.findByUsername(anyString())).thenReturn(Optional.of(trainee));
+        when(traineeRepository.findWithTrainersByUsername(anyString())).thenReturn(Optional.of(trainee));
         when(trainerRepository.findByUsername(anyString())).thenReturn(Optional.empty());
         assertThrows(TrainerNotFoundException.class, () -> trainingService.addTraining(trainingRequestDto));
     }
 
     @Test
     void addTraining_TrainingTypeNotFound_ShouldThrowException() {
-        when(traineeRepository.findByUsername(anyString())).thenReturn(Optional.of(trainee));
+        when(traineeRepository.findWithTrainersByUsername(anyString())).thenReturn(Optional.of(trainee));
         when(trainerRepository.findByUsername(anyString())).thenReturn(Optional.of(trainer));
-        when(trainingTypeRepository.findByTrainingTypeName(anyString())).thenReturn(Optional.empty());
+        when(trainingTypeCatalog.findReferenceByName(anyString())).thenReturn(Optional.empty());
         assertThrows(TrainingTypeNotFoundException.class, () -> trainingService.addTraining(trainingRequestDto));
     }
 
@@ -120,14 +128,7 @@ class TrainingServiceImplTest {
         Date toDate = new Date();
         Date fromDate = new Date(toDate.getTime() + 10000);
 
-        String encodedCredentials = Base64.getEncoder().encodeToString("trainee:password123".getBytes(StandardCharsets.UTF_8));
-        when(request.getHeader("Authorization")).thenReturn("Basic " + encodedCredentials);
-
-        Trainee trainee = new Trainee();
-        trainee.setUsername("trainee");
-        trainee.setPassword("password123");
-
-        when(traineeRepository.findByUsername("trainee")).thenReturn(Optional.of(trainee));
+        when(authenticationContext.getUsername()).thenReturn("trainee");
         when(trainingRepository.findTrainingsByTraineeCriteria(any(), any(), any(), any(), any())).thenReturn(Collections.emptyList());
 
         List<TrainingResponseDto> response = trainingService.getTraineeTrainings(fromDate, toDate, null, null);
@@ -135,10 +136,9 @@ class TrainingServiceImplTest {
         assertNotNull(response);
         assertTrue(response.isEmpty());
     }
-
     @Test
     void getAuthenticatedUsername_InvalidAuthFormat_ShouldThrowException() {
-        when(request.getHeader("Authorization")).thenReturn("Bearer invalidToken");
+        when(authenticationContext.getUsername()).thenThrow(new UnauthorizedException("Unauthorized request"));
         assertThrows(UnauthorizedException.class, () -> trainingService.getNotAssignedActiveTrainers());
     }
 
@@ -150,9 +150,9 @@ class TrainingServiceImplTest {
     @Test
     void addTraining_TraineeHasNoTrainers_ShouldAssignTrainer() {
         trainee.setTrainers(null);
-        when(traineeRepository.findByUsername(anyString())).thenReturn(Optional.of(trainee));
+        when(traineeRepository.findWithTrainersByUsername(anyString())).thenReturn(Optional.of(trainee));
         when(trainerRepository.findByUsername(anyString())).thenReturn(Optional.of(trainer));
-        when(trainingTypeRepository.findByTrainingTypeName(anyString())).thenReturn(Optional.of(trainingType));
+        when(trainingTypeCatalog.findReferenceByName(anyString())).thenReturn(Optional.of(trainingType));
         when(trainingRepository.save(any(Training.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         TrainingResponseDto response = trainingService.addTraining(trainingRequestDto);
@@ -163,10 +163,7 @@ class TrainingServiceImplTest {
 
     @Test
     void getNotAssignedActiveTrainers_EmptyList_ShouldReturnEmptyResponse() {
-        when(request.getHeader("Authorization")).thenReturn("Basic dHJhaW5lZTpwYXNzd29yZDEyMw==");
-
-        trainee.setPassword("password123");
-        doReturn(Optional.of(trainee)).when(traineeRepository).findByUsername(anyString());
+        when(authenticationContext.getUsername()).thenReturn("trainee");
 
         doReturn(new ArrayList<>()).when(trainerRepository).findNotAssignedActiveTrainers(anyString());
 
@@ -178,10 +175,7 @@ class TrainingServiceImplTest {
 
     @Test
     void getNotAssignedActiveTrainers_NullList_ShouldHandleGracefully() {
-        when(request.getHeader("Authorization")).thenReturn("Basic dHJhaW5lZTpwYXNzd29yZDEyMw==");
-
-        trainee.setPassword("password123");
-        doReturn(Optional.of(trainee)).when(traineeRepository).findByUsername(anyString());
+        when(authenticationContext.getUsername()).thenReturn("trainee");
 
         doReturn(Collections.emptyList()).when(trainerRepository).findNotAssignedActiveTrainers(anyString());
 
@@ -194,51 +188,34 @@ class TrainingServiceImplTest {
 
     @Test
     void getAuthenticatedUsername_NoAuthHeader_ShouldThrowUnauthorizedException() {
-        when(request.getHeader("Authorization")).thenReturn(null);
-        assertThrows(UnauthorizedException.class, () -> trainingService.getNotAssignedActiveTrainers());
-    }
-
-    @Test
-    void getAuthenticatedUsername_TrainerNotFound_ShouldThrowUnauthorizedException() {
-        when(request.getHeader("Authorization")).thenReturn("Basic dHJhaW5lZToxMjM0");
-        when(trainerRepository.findByUsername(anyString())).thenReturn(Optional.empty());
-
+        when(authenticationContext.getUsername()).thenThrow(new UnauthorizedException("Unauthorized request"));
         assertThrows(UnauthorizedException.class, () -> trainingService.getNotAssignedActiveTrainers());
     }
 
     @Test
     void updateTraineeTrainersList_EmptyTrainerUsernames_ShouldThrowException() {
-        when(request.getHeader("Authorization")).thenReturn("Basic dHJhaW5lZTpwYXNzd29yZDEyMw==");
+        when(authenticationContext.getUsername()).thenReturn("trainee");
         trainee.setPassword("password123");
-        doReturn(Optional.of(trainee)).when(traineeRepository).findByUsername(anyString());
+        doReturn(Optional.of(trainee)).when(traineeRepository).findWithTrainersByUsername(anyString());
         assertThrows(EmptyTrainerListException.class, () -> trainingService.updateTraineeTrainersList(new ArrayList<>()));
     }
 
     @Test
     void updateTraineeTrainersList_SomeTrainersNotFound_ShouldThrowException() {
-        when(request.getHeader("Authorization")).thenReturn("Basic dHJhaW5lZTpwYXNzd29yZDEyMw==");
+        when(authenticationContext.getUsername()).thenReturn("trainee");
         trainee.setPassword("password123");
-        doReturn(Optional.of(trainee)).when(traineeRepository).findByUsername(anyString());
+        doReturn(Optional.of(trainee)).when(traineeRepository).findWithTrainersByUsername(anyString());
 
         when(trainerRepository.findByUsernameIn(any())).thenReturn(List.of(trainer));
 
         assertThrows(TraineeNotFoundException.class, () -> trainingService.updateTraineeTrainersList(List.of("trainer456", "trainer789")));
     }
 
-    @Test
-    void getAuthenticatedUsername_TrainerHasNoPassword_ShouldThrowUnauthorizedException() {
-        when(request.getHeader("Authorization")).thenReturn("Basic dHJhaW5lZTpwYXNzd29yZDEyMw==");
-        trainer.setPassword(null);
-        when(trainerRepository.findByUsername(anyString())).thenReturn(Optional.of(trainer));
-
-        assertThrows(UnauthorizedException.class, () -> trainingService.getNotAssignedActiveTrainers());
-    }
-
     @Test
     void updateTraineeTrainersList_WithValidData_ShouldUpdateSuccessfully() {
-        when(request.getHeader("Authorization")).thenReturn("Basic dHJhaW5lZTpwYXNzd29yZDEyMw==");
+        when(authenticationContext.getUsername()).thenReturn("trainee");
         trainee.setTrainers(new ArrayList<>());
-        when(traineeRepository.findByUsername(anyString())).thenReturn(Optional.of(trainee));
+        when(traineeRepository.findWithTrainersByUsername(anyString())).thenReturn(Optional.of(trainee));
         when(trainerRepository.findByUsernameIn(any())).thenReturn(List.of(trainer));
         when(traineeRepository.save(any(Trainee.class))).thenReturn(trainee);
 
@@ -252,14 +229,15 @@ class TrainingServiceImplTest {
     }
 
     @Test
-    void getAuthenticatedUsername_InvalidPassword_ShouldThrowUnauthorizedException() {
-        String encodedCredentials = Base64.getEncoder().encodeToString("trainee:wrongPassword".getBytes(StandardCharsets.UTF_8));
-        when(request.getHeader("Authorization")).thenReturn("Basic " + encodedCredentials);
+    void getNotAssignedActiveTrainers_ShouldNotReloadAuthenticatedUser() {
+        when(authenticationContext.getUsername()).thenReturn("trainee");
+        doReturn(new ArrayList<>()).when(trainerRepository).findNotAssignedActiveTrainers("trainee");
 
-        trainee.setPassword("password123");
-        when(traineeRepository.findByUsername(anyString())).thenReturn(Optional.of(trainee));
+        trainingService.getNotAssignedActiveTrainers();
 
-        assertThrows(UnauthorizedException.class, () -> trainingService.getNotAssignedActiveTrainers());
+        verify(authenticationContext, times(1)).getUsername();
+        verifyNoInteractions(traineeRepository);
+        verify(trainerRepository, never()).findByUsername(anyString());
     }
 
     @Test
@@ -267,14 +245,15 @@ class TrainingServiceImplTest {
         Date fromDate = new Date();
         Date toDate = new Date(fromDate.getTime() + 100000);
 
-        when(request.getHeader("Authorization")).thenReturn("Basic dHJhaW5lZTpwYXNzd29yZDEyMw==");
-        when(traineeRepository.findByUsername(anyString())).thenReturn(Optional.of(trainee));
+        when(authenticationContext.getUsername()).thenReturn("trainee");
 
-        Training training = new Training();
-        training.setId(1L);
-        training.setTrainee(trainee);
-        training.setTrainer(trainer);
-        training.setTrainingType(trainingType);
+        TrainingResponseDto training = TrainingResponseDto.builder()
+                .trainerUsername("trainer456")
+                .trainingName("Morning Workout")
+                .trainingDate(fromDate)
+                .trainingDuration(60)
+                .trainingTypeName("Strength")
+                .build();
 
         when(trainingRepository.findTrainingsByTraineeCriteria(any(), any(), any(), any(), any()))
                 .thenReturn(List.of(training));
@@ -288,9 +267,9 @@ class TrainingServiceImplTest {
 
     @Test
     void addTraining_ShouldSaveTraining() {
-        when(traineeRepository.findByUsername(anyString())).thenReturn(Optional.of(trainee));
+        when(traineeRepository.findWithTrainersByUsername(anyString())).thenReturn(Optional.of(trainee));
         when(trainerRepository.findByUsername(anyString())).thenReturn(Optional.of(trainer));
-        when(trainingTypeRepository.findByTrainingTypeName(anyString())).thenReturn(Optional.of(trainingType));
+        when(trainingTypeCatalog.findReferenceByName(anyString())).thenReturn(Optional.of(trainingType));
         when(trainingRepository.save(any(Training.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         TrainingResponseDto response = trainingService.addTraining(trainingRequestDto);
@@ -301,9 +280,7 @@ class TrainingServiceImplTest {
 
     @Test
     void getNotAssignedActiveTrainers_UserHasAllTrainers_ShouldReturnEmptyList() {
-        when(request.getHeader("Authorization")).thenReturn("Basic dHJhaW5lZTpwYXNzd29yZDEyMw==");
-
-        trainee.setPassword("password123");
+        when(authenticationContext.getUsername()).thenReturn("trainee");
 
         Trainer trainer1 = new Trainer();
         trainer1.setUsername("trainer1");
@@ -314,7 +291,6 @@ class TrainingServiceImplTest {
         List<Trainer> assignedTrainers = List.of(trainer1, trainer2);
         trainee.setTrainers(assignedTrainers);
 
-        doReturn(Optional.of(trainee)).when(traineeRepository).findByUsername(anyString());
         doReturn(new ArrayList<>()).when(trainerRepository).findNotAssignedActiveTrainers(anyString());
 
         List<TrainerResponseDto> trainers = trainingService.getNotAssignedActiveTrainers();
@@ -325,10 +301,56 @@ class TrainingServiceImplTest {
 
     @Test
     void updateTraineeTrainersList_NullOrEmptyTrainerList_ShouldThrowException() {
-        when(request.getHeader("Authorization")).thenReturn("Basic dHJhaW5lZTpwYXNzd29yZDEyMw==");
-        when(traineeRepository.findByUsername(anyString())).thenReturn(Optional.of(trainee));
+        when(authenticationContext.getUsername()).thenReturn("trainee");
+        when(traineeRepository.findWithTrainersByUsername(anyString())).thenReturn(Optional.of(trainee));
 
         assertThrows(EmptyTrainerListException.class, () -> trainingService.updateTraineeTrainersList(null));
         assertThrows(EmptyTrainerListException.class, () -> trainingService.updateTraineeTrainersList(Collections.emptyList()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getTraineeTrainingsPage_LimitOutOfRange_ShouldThrowException() {
+        when(authenticationContext.getUsername()).thenReturn("trainee");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> trainingService.getTraineeTrainings(null, null, null, null, null, 0));
+        verifyNoInteractions(trainingRepository);
+    }
+
+    @Test
+    void getTrainerTrainingsPage_MalformedCursor_ShouldThrowException() {
+        when(authenticationContext.getUsername()).thenReturn("trainer");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> trainingService.getTrainerTrainings(null, null, null, "not-a-cursor", 10));
+        verifyNoInteractions(trainingRepository);
+    }
+
+    @Test
+    void exportTraineeTrainings_ShouldWriteOneJsonObjectPerLineAndCloseStream() throws Exception {
+        when(authenticationContext.getUsername()).thenReturn("trainee");
+        List<String> closed = new ArrayList<>();
+        Stream<TrainingResponseDto> trainings = Stream.of(
+                        TrainingResponseDto.builder().trainerUsername("trainer1").trainingName("Cardio").build(),
+                        TrainingResponseDto.builder().trainerUsername("trainer2").trainingName("Yoga").build())
+                .onClose(() -> closed.add("closed"));
+        when(trainingRepository.streamTrainingsByTraineeCriteria("trainee", null, null, null, null)).thenReturn(trainings);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        trainingService.exportTraineeTrainings(null, null, null, null, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("Cardio", objectMapper.readTree(lines[0]).get("trainingName").asText());
+        assertEquals("trainer2", objectMapper.readTree(lines[1]).get("trainerUsername").asText());
+        assertEquals(List.of("closed"), closed);
+    }
+
+    @Test
+    void getTrainingType_ShouldBeServedFromCatalog() {
+        List<TrainingTypeResponseDto> trainingTypes = List.of(new TrainingTypeResponseDto(1L, "Strength"));
+        when(trainingTypeCatalog.findAll()).thenReturn(trainingTypes);
+
+        assertEquals(trainingTypes, trainingService.getTrainingType());
+    }
+}
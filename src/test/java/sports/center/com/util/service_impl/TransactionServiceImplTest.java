@@ -58,4 +58,14 @@ class TransactionServiceImplTest {
 
         assertEquals(threadCount * iterationsPerThread, generatedIds.size(), "All generated IDs should be unique across threads");
     }
-}
\ No newline at end of file
+
+    @Test
+    void generateTransactionId_ShouldBeTimeOrdered() {
+        String previous = transactionService.generateTransactionId();
+        for (int i = 0; i < 10_000; i++) {
+            String next = transactionService.generateTransactionId();
+            assertTrue(next.compareTo(previous) > 0, "Transaction IDs should sort in generation order");
+            previous = next;
+        }
+    }
+}
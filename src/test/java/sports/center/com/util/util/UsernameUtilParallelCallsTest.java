@@ -0,0 +1,124 @@
+package sports.center.com.util.util;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.junit.jupiter.api.Test;
+import sports.center.com.util.UsernameUtil;
+
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test of UsernameUtil's control flow when called from many threads. The EntityManager is a scripted stub that
+ * models the counter and the advisory locks itself, so the SQL statements are not exercised here; the database-side
+ * race is not covered by any test in this module.
+ */
+class UsernameUtilParallelCallsTest {
+    private static final int REGISTRATIONS = 2000;
+    private static final int THREADS = 32;
+
+    private final Map<String, Integer> sequences = new ConcurrentHashMap<>();
+    private final Set<String> users = ConcurrentHashMap.newKeySet();
+    private final Map<String, ReentrantLock> advisoryLocks = new ConcurrentHashMap<>();
+    private final ThreadLocal<List<ReentrantLock>> heldLocks = ThreadLocal.withInitial(ArrayList::new);
+
+    private final UsernameUtil usernameUtil = new UsernameUtil(fakeEntityManager());
+
+    @Test
+    void generateUsername_ParallelCallsWithStubbedQueries_ShouldReturnDistinctNames() throws Exception {
+        users.add("john.smith3");
+        users.add("john.smith7");
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger failures = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < REGISTRATIONS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    String username = usernameUtil.generateUsername("John", "Smith");
+                    if (!users.add(username)) {
+                        failures.incrementAndGet();
+                    }
+                } catch (RuntimeException e) {
+                    failures.incrementAndGet();
+                } finally {
+                    commit();
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(0, failures.get());
+        assertEquals(REGISTRATIONS + 2, users.size());
+        assertTrue(users.contains("john.smith"));
+    }
+
+    private void commit() {
+        heldLocks.get().forEach(ReentrantLock::unlock);
+        heldLocks.get().clear();
+    }
+
+    private EntityManager fakeEntityManager() {
+        return (EntityManager) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{EntityManager.class},
+                (proxy, method, args) -> {
+                    if (!method.getName().equals("createNativeQuery")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    return fakeQuery((String) args[0]);
+                });
+    }
+
+    private Query fakeQuery(String sql) {
+        Map<String, Object> parameters = new HashMap<>();
+        return (Query) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Query.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "setParameter" -> {
+                        parameters.put((String) args[0], args[1]);
+                        yield proxy;
+                    }
+                    case "getResultList" -> execute(sql, parameters) instanceof Integer index ? List.of(index) : List.of();
+                    case "getSingleResult" -> execute(sql, parameters);
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private Object execute(String sql, Map<String, Object> parameters) {
+        if (sql.startsWith("UPDATE")) {
+            return sequences.computeIfPresent((String) parameters.get("baseUsername"),
+                    (base, index) -> index + (Integer) parameters.get("count"));
+        }
+        if (sql.startsWith("SELECT COALESCE")) {
+            // Ignores existing users on purpose, so the allocator has to skip the names taken outside the counter
+            return -1;
+        }
+        if (sql.startsWith("INSERT")) {
+            return sequences.merge((String) parameters.get("baseUsername"), (Integer) parameters.get("lastIndex"),
+                    (current, seed) -> current + (Integer) parameters.get("count"));
+        }
+        if (sql.startsWith("SELECT 1 FROM pg_advisory_xact_lock")) {
+            ReentrantLock lock = advisoryLocks.computeIfAbsent((String) parameters.get("username"), name -> new ReentrantLock());
+            lock.lock();
+            heldLocks.get().add(lock);
+            return 1;
+        }
+        if (sql.startsWith("SELECT EXISTS")) {
+            return users.contains((String) parameters.get("username"));
+        }
+        throw new IllegalArgumentException(sql);
+    }
+}
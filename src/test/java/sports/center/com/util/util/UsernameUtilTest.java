@@ -1,24 +1,47 @@
 package sports.center.com.util.util;
 
 import jakarta.persistence.EntityManager;
-import jakarta.persistence.TypedQuery;
+import jakarta.persistence.Query;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.Mockito;
+import sports.center.com.exception.exceptions.UsernameAllocationException;
 import sports.center.com.util.UsernameUtil;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 public class UsernameUtilTest {
     private final EntityManager entityManager = mock(EntityManager.class);
     private final UsernameUtil usernameUtil = new UsernameUtil(entityManager);
 
+    private final Query nextIndexQuery = mock(Query.class);
+    private final Query maxUsedIndexQuery = mock(Query.class);
+    private final Query seedQuery = mock(Query.class);
+    private final Query lockQuery = mock(Query.class);
+    private final Query existsQuery = mock(Query.class);
+    private final Query bulkLockQuery = mock(Query.class);
+    private final Query existingUsernamesQuery = mock(Query.class);
+
+    @BeforeEach
+    void setUp() {
+        for (Query query : List.of(nextIndexQuery, maxUsedIndexQuery, seedQuery, lockQuery, existsQuery,
+                bulkLockQuery, existingUsernamesQuery)) {
+            lenient().when(query.setParameter(anyString(), any())).thenReturn(query);
+        }
+        lenient().when(entityManager.createNativeQuery(startsWith("UPDATE"))).thenReturn(nextIndexQuery);
+        lenient().when(entityManager.createNativeQuery(startsWith("SELECT COALESCE"))).thenReturn(maxUsedIndexQuery);
+        lenient().when(entityManager.createNativeQuery(startsWith("INSERT"))).thenReturn(seedQuery);
+        lenient().when(entityManager.createNativeQuery(startsWith("SELECT 1 FROM pg_advisory_xact_lock"))).thenReturn(lockQuery);
+        lenient().when(entityManager.createNativeQuery(startsWith("SELECT EXISTS"))).thenReturn(existsQuery);
+        lenient().when(entityManager.createNativeQuery(startsWith("SELECT COUNT"))).thenReturn(bulkLockQuery);
+        lenient().when(entityManager.createNativeQuery(startsWith("SELECT u.username"))).thenReturn(existingUsernamesQuery);
+        lenient().when(existsQuery.getSingleResult()).thenReturn(false);
+    }
+
     @Test
     void generateUsername_WithNullInputs_ShouldThrowException() {
         assertThrows(IllegalArgumentException.class, () -> usernameUtil.generateUsername(null, "Smith"));
@@ -26,62 +49,116 @@ public class UsernameUtilTest {
 
     @Test
     void generateUsername() {
-        TypedQuery<String> query = Mockito.mock(TypedQuery.class);
-        when(entityManager.createQuery(anyString(), eq(String.class))).thenReturn(query);
-        when(query.getResultStream()).thenReturn(new HashSet<String>().stream());
+        when(nextIndexQuery.getResultList()).thenReturn(List.of());
+        when(maxUsedIndexQuery.getSingleResult()).thenReturn(-1);
+        when(seedQuery.getSingleResult()).thenReturn(0);
 
         String username = usernameUtil.generateUsername("John", "Doe");
 
         assertEquals("john.doe", username);
-        verify(entityManager).createQuery(anyString(), eq(String.class));
+        verify(seedQuery).setParameter("lastIndex", 0);
     }
 
     @Test
-    void generateUsername_ExistingUsernames_ShouldIncrementIndex() {
-        TypedQuery<String> query = mock(TypedQuery.class);
-        when(entityManager.createQuery(anyString(), eq(String.class))).thenReturn(query);
-        when(query.getResultStream()).thenReturn(Set.of("john.doe", "john.doe1", "john.doe2").stream());
+    void generateUsername_ExistingSequence_ShouldUseSingleUpdate() {
+        when(nextIndexQuery.getResultList()).thenReturn(List.of(3));
 
         String username = usernameUtil.generateUsername("John", "Doe");
 
         assertEquals("john.doe3", username);
-        verify(entityManager).createQuery(anyString(), eq(String.class));
+        verifyNoInteractions(maxUsedIndexQuery, seedQuery);
     }
 
     @Test
-    void generateUsername_MaxIndexBorder_ShouldHandleProperly() {
-        TypedQuery<String> query = mock(TypedQuery.class);
-        Set<String> usernames = new HashSet<>();
-        for (int i = 0; i <= 999; i++) {
-            usernames.add("john.doe" + i);
-        }
-        when(entityManager.createQuery(anyString(), eq(String.class))).thenReturn(query);
-        when(query.getResultStream()).thenReturn(usernames.stream());
+    void generateUsername_ExistingUsernames_ShouldSeedAfterHighestIndex() {
+        when(nextIndexQuery.getResultList()).thenReturn(List.of());
+        when(maxUsedIndexQuery.getSingleResult()).thenReturn(999);
+        when(seedQuery.getSingleResult()).thenReturn(1000);
 
         String username = usernameUtil.generateUsername("John", "Doe");
 
         assertEquals("john.doe1000", username);
-        verify(entityManager).createQuery(anyString(), eq(String.class));
+        verify(maxUsedIndexQuery).setParameter("lowerBound", "john.doe");
+        verify(maxUsedIndexQuery).setParameter("upperBound", "john.doe:");
+        verify(seedQuery).setParameter("lastIndex", 1000);
     }
 
     @Test
-    void generateUsername_EmptyStrings_ShouldThrowException() {
-        TypedQuery<String> query = mock(TypedQuery.class);
-        when(entityManager.createQuery(anyString(), eq(String.class))).thenReturn(query);
-        when(query.getResultStream()).thenReturn(new HashSet<String>().stream());
+    void generateUsername_ConcurrentSeed_ShouldUseIncrementedIndex() {
+        when(nextIndexQuery.getResultList()).thenReturn(List.of());
+        when(maxUsedIndexQuery.getSingleResult()).thenReturn(-1);
+        when(seedQuery.getSingleResult()).thenReturn(1);
+
+        assertEquals("john.doe1", usernameUtil.generateUsername("John", "Doe"));
+    }
+
+    @Test
+    void generateUsername_CandidateAlreadyTaken_ShouldSkipToNextIndex() {
+        when(nextIndexQuery.getResultList()).thenReturn(List.of(3), List.of(4));
+        when(existsQuery.getSingleResult()).thenReturn(true, false);
+
+        assertEquals("john.doe4", usernameUtil.generateUsername("John", "Doe"));
+        verify(lockQuery).setParameter("username", "john.doe3");
+        verify(lockQuery).setParameter("username", "john.doe4");
+    }
+
+    @Test
+    void generateUsername_NoFreeCandidate_ShouldThrowUsernameAllocationException() {
+        when(nextIndexQuery.getResultList()).thenReturn(List.of(1));
+        when(existsQuery.getSingleResult()).thenReturn(true);
+
+        assertThrows(UsernameAllocationException.class, () -> usernameUtil.generateUsername("John", "Doe"));
+    }
 
+    @Test
+    void generateUsernames_ShouldReserveWholeRangeWithOneUpdate() {
+        when(nextIndexQuery.getResultList()).thenReturn(List.of(12));
+        when(existingUsernamesQuery.getResultList()).thenReturn(List.of());
+
+        List<String> usernames = usernameUtil.generateUsernames("John", "Doe", 3);
+
+        assertEquals(List.of("john.doe10", "john.doe11", "john.doe12"), usernames);
+        verify(nextIndexQuery).setParameter("count", 3);
+        verify(bulkLockQuery).setParameter("usernames", List.of("john.doe10", "john.doe11", "john.doe12"));
+        verifyNoInteractions(lockQuery, existsQuery);
+    }
+
+    @Test
+    void generateUsernames_TakenCandidate_ShouldBeReplaced() {
+        when(nextIndexQuery.getResultList()).thenReturn(List.of(1), List.of(2));
+        when(existingUsernamesQuery.getResultList()).thenReturn(List.of("john.doe"));
+
+        List<String> usernames = usernameUtil.generateUsernames("John", "Doe", 2);
+
+        assertEquals(List.of("john.doe2", "john.doe1"), usernames);
+        verify(bulkLockQuery).setParameter("usernames", List.of("john.doe", "john.doe1"));
+        verify(bulkLockQuery).setParameter("usernames", List.of("john.doe2"));
+        verifyNoInteractions(lockQuery, existsQuery);
+    }
+
+    @Test
+    void generateUsernames_NoFreeCandidates_ShouldThrowUsernameAllocationException() {
+        when(nextIndexQuery.getResultList()).thenReturn(List.of(0));
+        when(existingUsernamesQuery.getResultList()).thenReturn(List.of("john.doe"));
+
+        assertThrows(UsernameAllocationException.class, () -> usernameUtil.generateUsernames("John", "Doe", 1));
+    }
+
+    @Test
+    void generateUsername_EmptyStrings_ShouldThrowException() {
         assertThrows(IllegalArgumentException.class, () -> usernameUtil.generateUsername("", ""));
+        verifyNoInteractions(entityManager);
     }
 
     @Test
     void generateUsername_TrimmableInput_ShouldCreateValidUsername() {
-        TypedQuery<String> query = mock(TypedQuery.class);
-        when(entityManager.createQuery(anyString(), eq(String.class))).thenReturn(query);
-        when(query.getResultStream()).thenReturn(new HashSet<String>().stream());
+        when(nextIndexQuery.getResultList()).thenReturn(List.of());
+        when(maxUsedIndexQuery.getSingleResult()).thenReturn(-1);
+        when(seedQuery.getSingleResult()).thenReturn(0);
 
         String username = usernameUtil.generateUsername("   John   ", "   Doe   ");
 
         assertEquals("john.doe", username);
-        verify(entityManager).createQuery(anyString(), eq(String.class));
+        verify(nextIndexQuery).setParameter("baseUsername", "john.doe");
     }
-}
\ No newline at end of file
+}